@@ -1,14 +1,27 @@
 package com.example.demo;
 
 import com.example.demo.controllers.*;
+import com.example.demo.models.AsyncDatabaseManager;
+import com.example.demo.models.ConnectionManager;
 import com.example.demo.models.Guest;
+import com.example.demo.models.QueryPlanVerifier;
+import com.example.demo.models.ReservationCache;
 import com.example.demo.models.ReservationDetails;
+import com.example.demo.models.RoomAssigner;
+import com.example.demo.models.RoomHolds;
+import com.example.demo.models.RoomInventory;
+import com.example.demo.models.RoomRegistry;
+import com.example.demo.models.RoomSelectionPrefetch;
+import com.example.demo.models.SchemaMigrator;
+import com.example.demo.models.WriteQueue;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 public class MainApplication extends Application {
 
@@ -16,137 +29,130 @@ public class MainApplication extends Application {
     // Corrected path prefix assuming FXML files are in src/main/resources/view/
     private static final String FXML_PATH_PREFIX = "/view/";
 
+    // The screens a user usually goes to from each screen; they are loaded in the background ahead of time.
+    private static final Map<String, List<String>> LIKELY_NEXT_VIEWS = Map.ofEntries(
+            Map.entry("KioskWelcomePage-01.fxml", List.of("KioskDateSelection-02.fxml", "AdminLoginPage-08.fxml", "KioskGuestFeedbackPage-14.fxml")),
+            Map.entry("KioskDateSelection-02.fxml", List.of("KioskGuestSelection-03.fxml", "KioskRoomSelectionPage-04.fxml")),
+            Map.entry("KioskGuestSelection-03.fxml", List.of("KioskRoomSelectionPage-04.fxml", "KioskGuestDetailsPage-05.fxml")),
+            Map.entry("KioskRoomSelectionPage-04.fxml", List.of("KioskGuestDetailsPage-05.fxml", "KioskRoomConfirmationPage-06.fxml")),
+            Map.entry("KioskGuestDetailsPage-05.fxml", List.of("KioskRoomConfirmationPage-06.fxml", "KioskBookingConfirmed-07.fxml")),
+            Map.entry("KioskRoomConfirmationPage-06.fxml", List.of("KioskBookingConfirmed-07.fxml", "KioskRulesPage-15.fxml")),
+            Map.entry("AdminLoginPage-08.fxml", List.of("AdminDashboardPage-09.fxml")),
+            Map.entry("AdminDashboardPage-09.fxml", List.of("AdminGuestSearch-11.fxml", "AdminProcessCheckoutPage-10.fxml", "BillingReport-12.fxml")),
+            Map.entry("AdminGuestSearch-11.fxml", List.of("AdminGuestDetails-13.fxml", "AdminModifyBooking-16.fxml")));
+
+    // A database call started by one screen must not call back into it once the user has left,
+    // and work prefetched for the next screen is dropped unless that screen is where the user went.
+    private static final SceneRegistry scenes = new SceneRegistry(FXML_PATH_PREFIX, LIKELY_NEXT_VIEWS, () -> {
+        AsyncDatabaseManager.cancelPending();
+        RoomSelectionPrefetch.cancel();
+    });
 
     @Override
     public void start(Stage stage) throws IOException {
+        try {
+            ConnectionManager.start();
+            // Apply any pending schema migrations once, before the first screen touches the database.
+            SchemaMigrator.migrate();
+            // Fails loudly if a lookup has lost its index and would scan the whole table.
+            QueryPlanVerifier.verify();
+            // Number any rooms added to the configured counts since the room registry was seeded.
+            RoomRegistry.reconcile();
+            // Load current bookings into the in-memory occupancy calendar used for availability checks.
+            RoomInventory.rebuild();
+            // Give every upcoming stay a room number, keeping the ones guests already have where possible.
+            RoomAssigner.assignWindow(LocalDate.now(), LocalDate.MAX);
+        } catch (SQLException e) {
+            throw new IOException("Unable to open the reservations database: " + e.getMessage(), e);
+        }
         mainStage = stage;
         mainStage.setTitle("Hotel Kiosk Application");
         loadNewScene("KioskWelcomePage-01.fxml");
     }
 
+    @Override
+    public void stop() {
+        scenes.shutdown();
+        AsyncDatabaseManager.shutdown();
+        RoomHolds.shutdown();
+        // Commit any queued writes before the connections go away.
+        WriteQueue.shutdown();
+        // Release the long-lived SQLite connections so the database file is closed cleanly.
+        ConnectionManager.shutdown();
+        ReservationCache.logStats();
+    }
+
     public static void loadNewScene(String fxmlFile) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + fxmlFile));
-        Scene scene = new Scene(fxmlLoader.load());
-        mainStage.setScene(scene);
-        mainStage.show();
+        scenes.show(mainStage, fxmlFile);
     }
 
     public static void loadDateSelectionScene(ReservationDetails reservationDetails) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "KioskDateSelection-02.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        KioskDateSelectionController controller = fxmlLoader.getController();
+        KioskDateSelectionController controller = scenes.show(mainStage, "KioskDateSelection-02.fxml");
         controller.setReservationDetails(reservationDetails);
-        mainStage.setScene(scene);
-        mainStage.show();
     }
 
     public static void loadGuestSelectionScene(ReservationDetails reservationDetails) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "KioskGuestSelection-03.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        KioskGuestSelectionController controller = fxmlLoader.getController();
+        KioskGuestSelectionController controller = scenes.show(mainStage, "KioskGuestSelection-03.fxml");
         controller.setReservationDetails(reservationDetails);
-        mainStage.setScene(scene);
-        mainStage.show();
     }
 
     public static void loadRoomSelectionScene(ReservationDetails reservationDetails) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "KioskRoomSelectionPage-04.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        KioskRoomSelectionController controller = fxmlLoader.getController();
-        controller.setReservationDetails(reservationDetails);
-        mainStage.setScene(scene);
-        mainStage.show();
+        // Taken before the view changes, which would cancel it
+        RoomSelectionPrefetch.RoomOptions prefetched = RoomSelectionPrefetch.take(reservationDetails);
+        KioskRoomSelectionController controller = scenes.show(mainStage, "KioskRoomSelectionPage-04.fxml");
+        controller.setReservationDetails(reservationDetails, prefetched);
     }
 
     public static void loadRoomDetailsScene(ReservationDetails reservationDetails) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "KioskGuestDetailsPage-05.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        KioskGuestDetailsController controller = fxmlLoader.getController();
+        KioskGuestDetailsController controller = scenes.show(mainStage, "KioskGuestDetailsPage-05.fxml");
         controller.setReservationDetails(reservationDetails);
-        mainStage.setScene(scene);
-        mainStage.show();
     }
 
     public static void loadRoomConfirmationScene(Guest guest, ReservationDetails reservationDetails) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "KioskRoomConfirmationPage-06.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        KioskRoomConfirmationController controller = fxmlLoader.getController();
+        KioskRoomConfirmationController controller = scenes.show(mainStage, "KioskRoomConfirmationPage-06.fxml");
         controller.setGuestAndReservationDetails(guest, reservationDetails);
-        mainStage.setScene(scene);
-        mainStage.show();
     }
 
     public static void loadBookingSuccessfulScene(String reservationId) throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "KioskBookingConfirmed-07.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        BookingSuccessfulController controller = fxmlLoader.getController();
+        BookingSuccessfulController controller = scenes.show(mainStage, "KioskBookingConfirmed-07.fxml");
         controller.setReservationId(reservationId); // Pass the reservation ID to the controller
-        mainStage.setScene(scene);
-        mainStage.show();
     }
+
     public static void loadAdminLoginScene() throws IOException {
-        // Updated FXML filename to "AdminLoginPage-08.fxml"
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "AdminLoginPage-08.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        mainStage.setScene(scene);
-        mainStage.show();
+        scenes.show(mainStage, "AdminLoginPage-08.fxml");
     }
 
     public static void loadAdminDashboardScene() throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "AdminDashboardPage-09.fxml")); // Assuming AdminDashboard.fxml is the name
-        Scene scene = new Scene(fxmlLoader.load());
-        // No controller specific setup needed here as AdminDashboardController handles its own initialization
-        mainStage.setScene(scene);
-        mainStage.show();
+        // No controller specific setup needed here as AdminDashboardController reloads its own table
+        scenes.show(mainStage, "AdminDashboardPage-09.fxml");
     }
 
     public static void loadAdminCheckOutScene() throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "AdminProcessCheckOutPage-10.fxml")); // Assuming FXML is named AdminCheckOut.fxml
-        Scene scene = new Scene(fxmlLoader.load());
-        mainStage.setScene(scene);
-        mainStage.show();
+        scenes.show(mainStage, "AdminProcessCheckoutPage-10.fxml");
     }
 
     public static void loadGuestSearchManagementScene() throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "AdminGuestSearch-11.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        mainStage.setScene(scene);
-        mainStage.show();
+        scenes.show(mainStage, "AdminGuestSearch-11.fxml");
     }
 
     public static void loadAdminReportsScene() throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "BillingReport-12.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        mainStage.setScene(scene);
-        mainStage.show();
+        scenes.show(mainStage, "BillingReport-12.fxml");
     }
 
     public static void loadGuestDetailsScene(Guest guest, ReservationDetails reservationDetails) throws IOException {
-        // This will load the editable GuestDetails.fxml
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "AdminGuestDetails-13.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        GuestDetailsController controller = fxmlLoader.getController();
+        // The read-only guest and reservation details page
+        GuestDetailsController controller = scenes.show(mainStage, "AdminGuestDetails-13.fxml");
         controller.setGuestAndReservationDetails(guest, reservationDetails);
-        mainStage.setScene(scene);
-        mainStage.show();
     }
 
     public static void loadAdminGuestDetailsModifyScene(Guest guest, ReservationDetails reservationDetails) throws IOException {
-        // This will load the AdminModifyBooking.fxml
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "AdminModifyBooking-16.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        AdminModifyBookingController controller = fxmlLoader.getController();
+        // The editable booking page
+        AdminModifyBookingController controller = scenes.show(mainStage, "AdminModifyBooking-16.fxml");
         controller.setGuestAndReservationDetails(guest, reservationDetails);
-        mainStage.setScene(scene);
-        mainStage.show();
     }
 
     public static void loadFeedbackScene() throws IOException {
-        // This will load the new feedback FXML file
-        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(FXML_PATH_PREFIX + "KioskGuestFeedbackPage-14.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
-        mainStage.setScene(scene);
-        mainStage.show();
+        scenes.show(mainStage, "KioskGuestFeedbackPage-14.fxml");
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,153 @@
+package com.example.demo;
+
+import com.example.demo.controllers.ReusableController;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads each FXML view once and keeps its node graph and controller for every later visit, so
+ * navigating is a swap of the scene's root instead of re-parsing the FXML and building a new scene.
+ * <p>
+ * After a view is shown, the views the user is likely to open next are loaded ahead of time on a
+ * low-priority background thread. A view that cannot be built off the JavaFX thread is simply left
+ * to be loaded on demand. Controllers that keep per-visit state implement
+ * {@link ReusableController} and are reset every time their view is shown.
+ */
+final class SceneRegistry {
+
+    private static final Logger logger = Logger.getLogger(SceneRegistry.class.getName());
+
+    private record View(Parent root, Object controller) {
+    }
+
+    private final String pathPrefix;
+    private final Map<String, List<String>> likelyNext;
+    private final Runnable onViewChange;
+    // A view is stored as soon as its loading starts, so a background load and a visit never build it twice.
+    private final Map<String, Future<View>> views = new ConcurrentHashMap<>();
+    private final ExecutorService prewarmer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scene-prewarm");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private Scene scene;
+
+    /**
+     * @param pathPrefix The classpath folder holding the FXML files.
+     * @param likelyNext For each view, the views to load ahead of time once it is shown.
+     * @param onViewChange Runs on the JavaFX thread whenever a different view replaces the current one.
+     */
+    SceneRegistry(String pathPrefix, Map<String, List<String>> likelyNext, Runnable onViewChange) {
+        this.pathPrefix = pathPrefix;
+        this.likelyNext = likelyNext;
+        this.onViewChange = onViewChange;
+    }
+
+    /**
+     * Shows a view in the stage, loading it first if it is not cached yet, and resets its controller.
+     * Must be called on the JavaFX thread.
+     * @param stage The stage to show the view in.
+     * @param fxmlFile The FXML file name, relative to the path prefix.
+     * @return The view's controller, ready to be given the screen's data.
+     * @throws IOException If the FXML file cannot be loaded.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T show(Stage stage, String fxmlFile) throws IOException {
+        View view = view(fxmlFile);
+        if (scene == null) {
+            scene = new Scene(view.root());
+            stage.setScene(scene);
+        } else if (scene.getRoot() != view.root()) {
+            scene.setRoot(view.root());
+            onViewChange.run();
+            stage.sizeToScene();
+        }
+        if (view.controller() instanceof ReusableController reusable) {
+            reusable.reset();
+        }
+        stage.show();
+        prewarm(likelyNext.getOrDefault(fxmlFile, List.of()));
+        return (T) view.controller();
+    }
+
+    /**
+     * Starts loading views in the background that are not cached or loading already.
+     * @param fxmlFiles The FXML file names.
+     */
+    void prewarm(List<String> fxmlFiles) {
+        for (String fxmlFile : fxmlFiles) {
+            if (views.containsKey(fxmlFile)) {
+                continue;
+            }
+            FutureTask<View> task = new FutureTask<>(() -> {
+                try {
+                    return load(fxmlFile);
+                } catch (Exception | LinkageError e) {
+                    logger.log(Level.FINE, "Could not load " + fxmlFile + " ahead of time; it will load when opened.", e);
+                    return null;
+                }
+            });
+            if (views.putIfAbsent(fxmlFile, task) == null) {
+                prewarmer.execute(task);
+            }
+        }
+    }
+
+    void shutdown() {
+        prewarmer.shutdownNow();
+    }
+
+    private View view(String fxmlFile) throws IOException {
+        while (true) {
+            FutureTask<View> task = new FutureTask<>(() -> load(fxmlFile));
+            Future<View> existing = views.putIfAbsent(fxmlFile, task);
+            if (existing == null) {
+                task.run();
+                existing = task;
+            } else if (existing instanceof FutureTask<View> queued) {
+                // A background load still waiting its turn is run here instead, so opening a view never
+                // waits behind other views queued ahead of it. Running a task twice does nothing, so the
+                // background thread skips it; a load already in progress makes this wait for it.
+                queued.run();
+            }
+            try {
+                View view = existing.get();
+                if (view != null) {
+                    return view;
+                }
+                // The background load gave up; build it here on the JavaFX thread instead.
+                views.remove(fxmlFile, existing);
+            } catch (ExecutionException e) {
+                views.remove(fxmlFile, existing);
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IOException("Could not load " + fxmlFile, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading " + fxmlFile, e);
+            }
+        }
+    }
+
+    private View load(String fxmlFile) throws IOException {
+        FXMLLoader fxmlLoader = new FXMLLoader(MainApplication.class.getResource(pathPrefix + fxmlFile));
+        Parent root = fxmlLoader.load();
+        return new View(root, fxmlLoader.getController());
+    }
+}
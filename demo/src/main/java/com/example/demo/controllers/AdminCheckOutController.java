@@ -1,10 +1,16 @@
 package com.example.demo.controllers;
 
 import com.example.demo.MainApplication;
-import com.example.demo.models.DatabaseManager;
+import com.example.demo.models.AsyncDatabaseManager;
 import com.example.demo.models.Guest;
+import com.example.demo.models.Money;
+import com.example.demo.models.PhoneIndex;
+import com.example.demo.models.PricingEngine;
 import com.example.demo.models.ReservationDetails;
+import com.example.demo.models.ReservationPage;
+import com.example.demo.models.ReservationSummary;
 import com.example.demo.util.Systemlogger;
+import javafx.animation.PauseTransition;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -13,24 +19,34 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import javafx.scene.control.ButtonType;
+import javafx.util.Duration;
 import java.io.IOException;
-import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
-public class AdminCheckOutController {
+public class AdminCheckOutController implements ReusableController {
 
     private static final Logger logger = Systemlogger.getLogger();
 
+    // A typed phone number is looked up once the admin stops typing for this long.
+    private static final Duration TYPING_PAUSE = Duration.millis(400);
+    // Typed phone numbers are looked up from this many digits on; fewer match too many guests to pick the right one.
+    private static final int MIN_TYPED_DIGITS = 7;
+    // Most matching reservations listed for the admin to choose from.
+    private static final int MAX_CANDIDATES = 10;
+
     @FXML
     private TextField phoneSearchField;
     @FXML
     private Button searchButton;
 
+    @FXML
+    private VBox candidatesBox;
     @FXML
     private VBox checkoutDetailsView;
 
@@ -54,23 +70,28 @@ public class AdminCheckOutController {
     private Guest currentGuest;
     private ReservationDetails currentReservationDetails;
 
-    private DecimalFormat currencyFormat = new DecimalFormat("#,##0.00");
     private DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("MMM dd, yyyy");
 
-    private static final double TAX_RATE = 0.13; // 13% tax
+    private final PauseTransition typingPause = new PauseTransition(TYPING_PAUSE);
+    // The lookup currently running, cancelled when a newer one starts.
+    private CompletableFuture<?> pendingSearch;
+    // The phone number of the lookup running or on screen, so typing that ends on the same number does not repeat it.
+    private String searchedPhoneNumber;
 
     @FXML
     public void initialize() {
         checkoutDetailsView.setVisible(false);
         checkoutDetailsView.setManaged(false);
 
-        DatabaseManager.initialize();
-
         // The listener is attached here to update the billing details whenever the discount field changes.
         discountField.textProperty().addListener((observable, oldValue, newValue) -> {
             updateBillingDetails();
         });
 
+        // Look the guest up as the phone number is typed, once the admin pauses
+        typingPause.setOnFinished(event -> searchAsTyped());
+        phoneSearchField.textProperty().addListener((observable, oldValue, newValue) -> typingPause.playFromStart());
+
         // The discountField is now initialized as an empty string.
         // To show "if applicable only", you should set the promptText property in the FXML file.
         // For example: <TextField fx:id="discountField" promptText="if applicable only" />
@@ -78,6 +99,27 @@ public class AdminCheckOutController {
         logger.info("AdminCheckOutController initialized.");
     }
 
+    /**
+     * Clears the previous search and hides the checkout details.
+     */
+    @Override
+    public void reset() {
+        // Forget the reservation first, so clearing the discount field does not recalculate its bill
+        currentGuest = null;
+        currentReservationDetails = null;
+        cancelSearch();
+        hideCandidates();
+        clearForm();
+        // Clearing the search field counts as typing; there is nothing to look up
+        typingPause.stop();
+        searchedPhoneNumber = null;
+        checkoutDetailsView.setVisible(false);
+        checkoutDetailsView.setManaged(false);
+        setSearching(false);
+        checkoutButton.setDisable(false);
+        checkoutButton.setText("Proceed Checkout");
+    }
+
     /**
      * Handles the action when the "Search" button is clicked.
      * Fetches reservation data from the database based on the entered mobile number
@@ -86,46 +128,184 @@ public class AdminCheckOutController {
      */
     @FXML
     private void handleSearch(ActionEvent event) {
+        typingPause.stop();
         String phoneNumber = phoneSearchField.getText().trim();
         logger.info("Admin attempting to search for reservation by phone number: " + phoneNumber);
         if (phoneNumber.isEmpty()) {
+            cancelSearch();
+            hideCandidates();
+            searchedPhoneNumber = null;
             showAlert(Alert.AlertType.WARNING, "Input Required", "Please enter a phone number to search.");
             checkoutDetailsView.setVisible(false);
             checkoutDetailsView.setManaged(false);
             logger.warning("Search failed: Phone number field was empty.");
             return;
         }
+        search(phoneNumber, true);
+    }
 
-        List<DatabaseManager.ReservationDisplay> searchResults = DatabaseManager.searchReservationsByPhoneNumber(phoneNumber);
+    /**
+     * Looks up the phone number typed so far, once the admin has paused typing and enough
+     * digits are in to narrow the reservations down.
+     */
+    private void searchAsTyped() {
+        String phoneNumber = phoneSearchField.getText().trim();
+        if (phoneNumber.equals(searchedPhoneNumber)
+                || phoneNumber.chars().filter(Character::isDigit).count() < MIN_TYPED_DIGITS) {
+            return;
+        }
+        logger.fine("Looking up reservation as typed for phone number: " + phoneNumber);
+        search(phoneNumber, false);
+    }
 
-        if (searchResults != null && !searchResults.isEmpty()) {
-            DatabaseManager.ReservationDisplay displayData = searchResults.get(0);
-            String reservationId = displayData.getReservationIdValue();
+    /**
+     * Looks up the reservations for a phone number, cancelling the lookup still running, if any;
+     * only the newest lookup ever changes the screen. The checkout form is only filled in when
+     * the number singles out one reservation: it is the only match, or the only one whose phone
+     * number is exactly the number entered. Otherwise the matches are listed for the admin to
+     * pick from, so a partial number never puts another guest's stay up for checkout.
+     * @param phoneNumber The full or partial phone number.
+     * @param clicked true if the admin asked for this lookup with the button, so finding nothing
+     *                or failing to load is worth an alert; typed lookups stay quiet.
+     */
+    private void search(String phoneNumber, boolean clicked) {
+        cancelSearch();
+        searchedPhoneNumber = phoneNumber;
+        setSearching(true);
+        CompletableFuture<ReservationPage> matches = AsyncDatabaseManager.searchReservations(phoneNumber, 0, MAX_CANDIDATES);
+        pendingSearch = matches;
+        matches.whenComplete((page, error) -> {
+            if (matches != pendingSearch || AsyncDatabaseManager.isCancellation(error)) {
+                return;
+            }
+            pendingSearch = null;
+            setSearching(false);
+            hideCandidates();
+            if (error != null || page.rows().isEmpty()) {
+                // Search again next time, rather than treating the number as already shown
+                searchedPhoneNumber = null;
+                hideCheckoutDetails();
+                logger.info("No reservations found for phone number: " + phoneNumber);
+                if (clicked) {
+                    showAlert(Alert.AlertType.INFORMATION, "No Reservation Found", "No reservations found for phone number: " + phoneNumber);
+                }
+                return;
+            }
+            ReservationSummary match = singleMatch(phoneNumber, page);
+            if (match != null) {
+                openReservation(match, clicked);
+            } else {
+                hideCheckoutDetails();
+                showCandidates(page);
+            }
+        });
+    }
 
-            Map<String, Object> fullReservationData = DatabaseManager.getReservationById(reservationId);
+    /**
+     * @return The one reservation the phone number points at, or null if the admin has to choose.
+     */
+    private static ReservationSummary singleMatch(String phoneNumber, ReservationPage page) {
+        if (page.hasMore()) {
+            return null;
+        }
+        if (page.rows().size() == 1) {
+            return page.rows().get(0);
+        }
+        String digits = PhoneIndex.normalize(phoneNumber);
+        List<ReservationSummary> exact = page.rows().stream()
+                .filter(row -> PhoneIndex.normalize(row.getGuestPhoneNumber()).equals(digits))
+                .toList();
+        return exact.size() == 1 ? exact.get(0) : null;
+    }
 
-            if (fullReservationData != null) {
-                currentGuest = (Guest) fullReservationData.get("guest");
-                currentReservationDetails = (ReservationDetails) fullReservationData.get("reservationDetails");
+    /**
+     * Lists the matching reservations as buttons; choosing one loads it into the checkout form.
+     */
+    private void showCandidates(ReservationPage page) {
+        candidatesBox.getChildren().clear();
+        candidatesBox.getChildren().add(new Label(page.hasMore()
+                ? "More than " + MAX_CANDIDATES + " reservations match. Keep typing, or choose one:"
+                : page.rows().size() + " reservations match. Choose the one to check out:"));
+        for (ReservationSummary row : page.rows()) {
+            Button button = new Button(row.getGuestFullName() + " - " + row.getGuestPhoneNumber()
+                    + " - #" + row.getReservationIdValue() + ", check-in " + row.getCheckInDateFormatted()
+                    + " (" + row.getStatus() + ")");
+            button.setOnAction(e -> {
+                hideCandidates();
+                openReservation(row, true);
+            });
+            candidatesBox.getChildren().add(button);
+        }
+        candidatesBox.setVisible(true);
+        candidatesBox.setManaged(true);
+    }
 
-                populateCheckoutDetails();
-                checkoutDetailsView.setVisible(true);
-                checkoutDetailsView.setManaged(true);
-                logger.info("Reservation found and details populated for reservation ID: " + reservationId);
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Data Error", "Could not retrieve full reservation details for ID: " + reservationId);
-                checkoutDetailsView.setVisible(false);
-                checkoutDetailsView.setManaged(false);
+    private void hideCandidates() {
+        candidatesBox.getChildren().clear();
+        candidatesBox.setVisible(false);
+        candidatesBox.setManaged(false);
+    }
+
+    /**
+     * Loads a reservation in full and fills in the checkout form with it.
+     * @param match The reservation to load.
+     * @param clicked true if the admin asked for it, so failing to load it is worth an alert.
+     */
+    private void openReservation(ReservationSummary match, boolean clicked) {
+        cancelSearch();
+        String reservationId = match.getReservationIdValue();
+        setSearching(true);
+        CompletableFuture<Map<String, Object>> reservation = AsyncDatabaseManager.getReservationById(reservationId);
+        pendingSearch = reservation;
+        reservation.whenComplete((fullReservationData, error) -> {
+            if (reservation != pendingSearch || AsyncDatabaseManager.isCancellation(error)) {
+                return;
+            }
+            pendingSearch = null;
+            setSearching(false);
+            if (error != null || fullReservationData == null) {
+                searchedPhoneNumber = null;
+                hideCheckoutDetails();
                 logger.severe("Could not retrieve full reservation details for ID: " + reservationId);
+                if (clicked) {
+                    showAlert(Alert.AlertType.ERROR, "Data Error", "Could not retrieve full reservation details for ID: " + reservationId);
+                }
+                return;
             }
-        } else {
-            showAlert(Alert.AlertType.INFORMATION, "No Reservation Found", "No reservations found for phone number: " + phoneNumber);
-            checkoutDetailsView.setVisible(false);
-            checkoutDetailsView.setManaged(false);
-            logger.info("No reservations found for phone number: " + phoneNumber);
+            currentGuest = (Guest) fullReservationData.get("guest");
+            currentReservationDetails = (ReservationDetails) fullReservationData.get("reservationDetails");
+
+            populateCheckoutDetails();
+            checkoutDetailsView.setVisible(true);
+            checkoutDetailsView.setManaged(true);
+            logger.info("Reservation found and details populated for reservation ID: " + reservationId);
+        });
+    }
+
+    private void cancelSearch() {
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+            pendingSearch = null;
         }
     }
 
+    // Also forgets the reservation, so nothing hidden can still be billed or checked out.
+    private void hideCheckoutDetails() {
+        currentGuest = null;
+        currentReservationDetails = null;
+        checkoutDetailsView.setVisible(false);
+        checkoutDetailsView.setManaged(false);
+    }
+
+    /**
+     * Disables the search button and shows progress on it while a search is running.
+     * The phone number field stays editable, so typing on cancels the lookup and starts a newer one.
+     */
+    private void setSearching(boolean searching) {
+        searchButton.setDisable(searching);
+        searchButton.setText(searching ? "Searching..." : "Search");
+    }
+
     /**
      * Populates the UI labels and fields with the current guest and reservation details.
      */
@@ -138,17 +318,11 @@ public class AdminCheckOutController {
             checkOutDateLabel.setText(currentReservationDetails.getCheckOutDate().format(dateFormat));
             roomTypeLabel.setText(currentReservationDetails.getRoomType());
 
-            long numberOfNights = currentReservationDetails.getNumberOfNights();
-            double roomCharges = (currentReservationDetails.getSingleRooms() * 100.00 +
-                    currentReservationDetails.getDoubleRooms() * 150.00 +
-                    currentReservationDetails.getDeluxeRooms() * 250.00 +
-                    currentReservationDetails.getPenthouses() * 350.00) * numberOfNights;
+            PricingEngine.Quote quote = PricingEngine.quote(currentReservationDetails);
+            Money preDiscountSubtotal = quote.total();
 
-            double taxes = roomCharges * TAX_RATE;
-            double preDiscountSubtotal = roomCharges + taxes;
-
-            roomChargesLabel.setText("$" + currencyFormat.format(roomCharges));
-            taxesLabel.setText("$" + currencyFormat.format(taxes));
+            roomChargesLabel.setText(quote.roomCharges().toString());
+            taxesLabel.setText(quote.tax().toString());
 
             // Set the estimated price on the reservation details object
             currentReservationDetails.setEstimatedPrice(preDiscountSubtotal);
@@ -171,8 +345,7 @@ public class AdminCheckOutController {
         }
 
         // Get the initial subtotal (room charges + taxes) from the reservation details object
-        double preDiscountSubtotal = currentReservationDetails.getEstimatedPrice();
-        double discountAmount = 0.0;
+        Money preDiscountSubtotal = currentReservationDetails.getEstimatedPrice();
         int discountPercentage = 0;
 
         try {
@@ -190,11 +363,10 @@ public class AdminCheckOutController {
             discountField.setText(String.valueOf(discountPercentage));
         }
 
-        discountAmount = preDiscountSubtotal * (discountPercentage / 100.0);
-        double finalTotal = preDiscountSubtotal - discountAmount;
+        Money finalTotal = preDiscountSubtotal.discountedBy(discountPercentage);
 
-        subtotalLabel.setText("$" + currencyFormat.format(preDiscountSubtotal)); // Displays the subtotal before discount
-        totalAmountLabel.setText("Total Amount Due: $" + currencyFormat.format(finalTotal)); // Displays the final total after discount
+        subtotalLabel.setText(preDiscountSubtotal.toString()); // Displays the subtotal before discount
+        totalAmountLabel.setText("Total Amount Due: " + finalTotal); // Displays the final total after discount
         logger.info("Discount of " + discountPercentage + "% applied. New total due: " + finalTotal);
     }
 
@@ -237,19 +409,18 @@ public class AdminCheckOutController {
             logger.info("User confirmed checkout for reservation ID: " + currentReservationDetails.getReservationId());
 
             // Calculate the final price to be saved.
-            double finalPrice = 0.0;
+            Money finalPrice;
             try {
                 // The `subtotalLabel` now contains the pre-discount subtotal, so we need to
                 // recalculate the final price based on the current discount field value.
-                double preDiscountSubtotal = currentReservationDetails.getEstimatedPrice();
+                Money preDiscountSubtotal = currentReservationDetails.getEstimatedPrice();
                 int discountPercentage = 0;
                 String discountText = discountField.getText().trim();
                 if (!discountText.isEmpty()) {
                     discountPercentage = Integer.parseInt(discountText);
                 }
 
-                double discountAmount = preDiscountSubtotal * (discountPercentage / 100.0);
-                finalPrice = preDiscountSubtotal - discountAmount;
+                finalPrice = preDiscountSubtotal.discountedBy(discountPercentage);
             } catch (NumberFormatException e) {
                 logger.severe("Could not parse discount amount for checkout: " + e.getMessage());
                 showAlert(Alert.AlertType.ERROR, "Calculation Error", "Failed to parse discount value. Please enter a valid number.");
@@ -257,21 +428,31 @@ public class AdminCheckOutController {
             }
 
             // Call the correct method to save the final price and update the status.
-            boolean success = DatabaseManager.saveCheckoutDetails(currentReservationDetails.getReservationId(), finalPrice);
-
-            if (success) {
-                showAlert(Alert.AlertType.INFORMATION, "Checkout Successful", "Reservation " + currentReservationDetails.getReservationId() + " has been successfully checked out.");
-                logger.info("Successfully checked out reservation ID: " + currentReservationDetails.getReservationId() + " with a final price of " + finalPrice);
-                try {
-                    MainApplication.loadAdminDashboardScene();
-                } catch (IOException e) {
-                    logger.severe("Failed to load Admin Dashboard after successful checkout: " + e.getMessage());
-                    showAlert(Alert.AlertType.ERROR, "Navigation Error", "Failed to load Admin Dashboard: " + e.getMessage());
+            String reservationId = currentReservationDetails.getReservationId();
+            Money savedPrice = finalPrice;
+            checkoutButton.setDisable(true);
+            checkoutButton.setText("Checking out...");
+            CompletableFuture<Boolean> checkout = AsyncDatabaseManager.saveCheckoutDetails(reservationId, finalPrice);
+            checkout.whenComplete((success, error) -> {
+                if (AsyncDatabaseManager.isCancellation(error)) {
+                    return;
                 }
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Checkout Failed", "Failed to update reservation status. Please try again.");
-                logger.severe("Failed to update reservation status for ID: " + currentReservationDetails.getReservationId());
-            }
+                checkoutButton.setDisable(false);
+                checkoutButton.setText("Proceed Checkout");
+                if (Boolean.TRUE.equals(success)) {
+                    showAlert(Alert.AlertType.INFORMATION, "Checkout Successful", "Reservation " + reservationId + " has been successfully checked out.");
+                    logger.info("Successfully checked out reservation ID: " + reservationId + " with a final price of " + savedPrice);
+                    try {
+                        MainApplication.loadAdminDashboardScene();
+                    } catch (IOException e) {
+                        logger.severe("Failed to load Admin Dashboard after successful checkout: " + e.getMessage());
+                        showAlert(Alert.AlertType.ERROR, "Navigation Error", "Failed to load Admin Dashboard: " + e.getMessage());
+                    }
+                } else {
+                    showAlert(Alert.AlertType.ERROR, "Checkout Failed", "Failed to update reservation status. Please try again.");
+                    logger.severe("Failed to update reservation status for ID: " + reservationId);
+                }
+            });
         } else {
             logger.info("Checkout process cancelled by user for reservation ID: " + currentReservationDetails.getReservationId());
             showAlert(Alert.AlertType.INFORMATION, "Checkout Cancelled", "Checkout process cancelled by user.");
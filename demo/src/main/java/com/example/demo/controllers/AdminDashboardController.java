@@ -7,34 +7,38 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import com.example.demo.MainApplication;
 import com.example.demo.models.ReservationDetails;
-import com.example.demo.models.DatabaseManager;
-import com.example.demo.models.DatabaseManager.ReservationDisplay;
+import com.example.demo.models.AsyncDatabaseManager;
+import com.example.demo.models.RoomAssigner;
+import com.example.demo.models.ReservationSummary;
 import com.example.demo.util.Systemlogger; // Import your custom logger utility
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.logging.Logger; // Import the Java logging class
 
-public class AdminDashboardController {
+public class AdminDashboardController implements ReusableController {
 
     // Get the custom logger instance
     private static final Logger logger = Systemlogger.getLogger();
 
     @FXML
-    private TableView<ReservationDisplay> reservationsTable;
+    private TableView<ReservationSummary> reservationsTable;
     @FXML
-    private TableColumn<ReservationDisplay, String> guestNameColumn;
+    private TableColumn<ReservationSummary, String> guestNameColumn;
     @FXML
-    private TableColumn<ReservationDisplay, String> roomColumn;
+    private TableColumn<ReservationSummary, String> roomColumn;
     @FXML
-    private TableColumn<ReservationDisplay, String> checkInTimeColumn;
+    private TableColumn<ReservationSummary, String> checkInTimeColumn;
     @FXML
-    private TableColumn<ReservationDisplay, String> statusColumn;
+    private TableColumn<ReservationSummary, String> statusColumn;
+    @FXML
+    private Label pinConflictsLabel;
 
     @FXML
     public void initialize() {
@@ -43,24 +47,49 @@ public class AdminDashboardController {
         checkInTimeColumn.setCellValueFactory(new PropertyValueFactory<>("checkInDateFormatted"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
 
+        logger.info("AdminDashboardController initialized.");
+    }
+
+    /**
+     * Reloads the upcoming reservations and room clashes every time the dashboard is shown.
+     */
+    @Override
+    public void reset() {
+        showPinConflicts();
         loadUpcomingReservations();
+    }
 
-        logger.info("AdminDashboardController initialized.");
+    /**
+     * Warns about hand-typed room numbers that clash with another stay, so an admin can fix them.
+     */
+    private void showPinConflicts() {
+        List<String> conflicts = RoomAssigner.pinConflicts();
+        pinConflictsLabel.setText(String.join("\n", conflicts));
+        pinConflictsLabel.setVisible(!conflicts.isEmpty());
+        pinConflictsLabel.setManaged(!conflicts.isEmpty());
     }
 
     /**
      * Loads reservations for today and tomorrow into the reservationsTable.
      */
     private void loadUpcomingReservations() {
-        DatabaseManager.initialize();
-
-        List<ReservationDisplay> upcomingReservations = DatabaseManager.getReservationsForNext24Hours();
-        ObservableList<ReservationDisplay> observableList = FXCollections.observableArrayList(upcomingReservations);
-        reservationsTable.setItems(observableList);
-
-        if (upcomingReservations.isEmpty()) {
-            reservationsTable.setPlaceholder(new Label("No upcoming reservations for today or tomorrow."));
-        }
+        reservationsTable.setPlaceholder(new ProgressIndicator());
+        AsyncDatabaseManager.getReservationsForNext24Hours().whenComplete((upcomingReservations, error) -> {
+            if (AsyncDatabaseManager.isCancellation(error)) {
+                return;
+            }
+            if (error != null) {
+                reservationsTable.setPlaceholder(new Label("Upcoming reservations could not be loaded."));
+                logger.severe("Failed to load upcoming reservations: " + error.getMessage());
+                return;
+            }
+            ObservableList<ReservationSummary> observableList = FXCollections.observableArrayList(upcomingReservations);
+            reservationsTable.setItems(observableList);
+
+            if (upcomingReservations.isEmpty()) {
+                reservationsTable.setPlaceholder(new Label("No upcoming reservations for today or tomorrow."));
+            }
+        });
     }
 
     /**
@@ -14,7 +14,7 @@ import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 
-public class AdminLoginController {
+public class AdminLoginController implements ReusableController {
 
     // Get the custom logger instance
     private static final Logger logger = Systemlogger.getLogger();
@@ -52,6 +52,16 @@ public class AdminLoginController {
         errorMessageLabel.setText("");
     }
 
+    /**
+     * Clears the credentials typed on the previous visit.
+     */
+    @Override
+    public void reset() {
+        usernameField.clear();
+        passwordField.clear();
+        errorMessageLabel.setText("");
+    }
+
     /**
      * Handles the login attempt when the "Login" button is clicked.
      * Validates credentials and navigates to the Admin Dashboard on success.
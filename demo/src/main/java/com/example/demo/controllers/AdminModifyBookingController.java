@@ -1,9 +1,12 @@
 package com.example.demo.controllers;
 
 import com.example.demo.MainApplication;
-import com.example.demo.models.DatabaseManager;
+import com.example.demo.models.AsyncDatabaseManager;
 import com.example.demo.models.Guest;
+import com.example.demo.models.Money;
+import com.example.demo.models.PricingEngine;
 import com.example.demo.models.ReservationDetails;
+import com.example.demo.models.RoomType;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -14,11 +17,11 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.DatePicker;
 import java.io.IOException;
-import java.text.DecimalFormat;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
 
-public class AdminModifyBookingController {
+public class AdminModifyBookingController implements ReusableController {
 
     // Guest Information Fields
     @FXML private TextField fullNameField;
@@ -57,16 +60,6 @@ public class AdminModifyBookingController {
     private Guest guest;
     private ReservationDetails reservationDetails;
 
-    // Room prices per night (must match your actual pricing logic)
-    private static final double SINGLE_ROOM_PRICE = 100.00;
-    private static final double DOUBLE_ROOM_PRICE = 150.00;
-    private static final double DELUXE_ROOM_PRICE = 250.00;
-    private static final double PENTHOUSE_PRICE = 350.00;
-    private static final double TAX_RATE = 0.13; // 13% tax
-
-    private DecimalFormat currencyFormat = new DecimalFormat("$#,##0.00");
-
-
     @FXML
     public void initialize() {
         // Initialize ComboBoxes
@@ -97,6 +90,15 @@ public class AdminModifyBookingController {
         // Removed: discountPercentageField.textProperty().addListener((obs, oldVal, newVal) -> updateEstimatedPrice());
     }
 
+    /**
+     * Re-enables the save button a previous save may have left disabled.
+     */
+    @Override
+    public void reset() {
+        saveChangesButton.setDisable(false);
+        saveChangesButton.setText("Save Changes");
+    }
+
     /**
      * Sets the Guest and ReservationDetails objects for this controller
      * and populates the UI fields with the respective data for modification.
@@ -163,22 +165,18 @@ public class AdminModifyBookingController {
      */
     private void updateEstimatedPrice() {
         if (reservationDetails == null || checkInDateField.getValue() == null || checkOutDateField.getValue() == null) {
-            estimatedTotalLabel.setText(currencyFormat.format(0.0));
+            estimatedTotalLabel.setText(Money.ZERO.toString());
             return;
         }
 
-        long numberOfNights = ChronoUnit.DAYS.between(checkInDateField.getValue(), checkOutDateField.getValue());
-        if (numberOfNights < 0) numberOfNights = 0; // Prevent negative nights
+        Map<RoomType, Integer> rooms = new EnumMap<>(RoomType.class);
+        rooms.put(RoomType.SINGLE, parseTextFieldInt(singleRoomsField));
+        rooms.put(RoomType.DOUBLE, parseTextFieldInt(doubleRoomsField));
+        rooms.put(RoomType.DELUXE, parseTextFieldInt(deluxeRoomsField));
+        rooms.put(RoomType.PENTHOUSE, parseTextFieldInt(penthousesField));
 
-        int singleRooms = parseTextFieldInt(singleRoomsField);
-        int doubleRooms = parseTextFieldInt(doubleRoomsField);
-        int deluxeRooms = parseTextFieldInt(deluxeRoomsField);
-        int penthouses = parseTextFieldInt(penthousesField);
-
-        double subTotal = (singleRooms * SINGLE_ROOM_PRICE +
-                doubleRooms * DOUBLE_ROOM_PRICE +
-                deluxeRooms * DELUXE_ROOM_PRICE +
-                penthouses * PENTHOUSE_PRICE) * numberOfNights;
+        // An empty or backwards date range is quoted as zero
+        PricingEngine.Quote quote = PricingEngine.quote(rooms, checkInDateField.getValue(), checkOutDateField.getValue());
 
         // Removed discount calculation
         // double discountPercentage = parseTextFieldDouble(discountPercentageField);
@@ -187,11 +185,9 @@ public class AdminModifyBookingController {
         // double discountAmount = subTotal * (discountPercentage / 100.0);
         // double priceAfterDiscount = subTotal - discountAmount;
 
-        double priceAfterDiscount = subTotal; // No discount applied
-        double taxAmount = priceAfterDiscount * TAX_RATE;
-        double finalEstimatedTotal = priceAfterDiscount + taxAmount;
+        Money finalEstimatedTotal = quote.total(); // No discount applied
 
-        estimatedTotalLabel.setText(currencyFormat.format(finalEstimatedTotal));
+        estimatedTotalLabel.setText(finalEstimatedTotal.toString());
 
         // Update the estimatedPrice in the reservationDetails object for saving
         reservationDetails.setEstimatedPrice(finalEstimatedTotal);
@@ -271,15 +267,42 @@ public class AdminModifyBookingController {
         // The estimatedPrice in reservationDetails is already updated by updateEstimatedPrice()
         // which is called by listeners and populateFields().
 
-        // 4. Save changes to database
-        DatabaseManager.initialize(); // Ensure DB is ready
-        boolean success = DatabaseManager.updateReservation(guest, reservationDetails);
+        // 4. Check that the typed room numbers exist and are free for these dates, then save
+        saveChangesButton.setDisable(true);
+        saveChangesButton.setText("Saving...");
+        AsyncDatabaseManager.findRoomConflicts(Integer.parseInt(reservationDetails.getReservationId()),
+                reservationDetails.getRoomNumber(), reservationDetails).whenComplete((problems, error) -> {
+            if (AsyncDatabaseManager.isCancellation(error)) {
+                return;
+            }
+            if (error == null && !problems.isEmpty()) {
+                saveChangesButton.setDisable(false);
+                saveChangesButton.setText("Save Changes");
+                showAlert(Alert.AlertType.ERROR, "Room Not Available", String.join("\n", problems) +
+                        "\nEnter other room numbers, or N/A to have rooms assigned automatically.");
+                return;
+            }
+            // A failed check is repeated when the change is saved, so go ahead and let the save report it
+            saveChanges();
+        });
+    }
 
-        if (success) {
-            showAlert(Alert.AlertType.INFORMATION, "Success", "Booking details updated successfully!");
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Save Failed", "Failed to update booking details in the database.");
-        }
+    /**
+     * Saves the updated guest and reservation to the database and reports the outcome.
+     */
+    private void saveChanges() {
+        AsyncDatabaseManager.updateReservation(guest, reservationDetails).whenComplete((success, error) -> {
+            if (AsyncDatabaseManager.isCancellation(error)) {
+                return;
+            }
+            saveChangesButton.setDisable(false);
+            saveChangesButton.setText("Save Changes");
+            if (Boolean.TRUE.equals(success)) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Booking details updated successfully!");
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Save Failed", "Failed to update booking details in the database.");
+            }
+        });
     }
 
     /**
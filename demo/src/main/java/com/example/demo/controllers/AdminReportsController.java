@@ -1,8 +1,10 @@
 package com.example.demo.controllers;
 
 import com.example.demo.MainApplication;
-import com.example.demo.models.DatabaseManager;
+import com.example.demo.models.AsyncDatabaseManager;
 import com.example.demo.models.Guest;
+import com.example.demo.models.Money;
+import com.example.demo.models.PricingEngine;
 import com.example.demo.models.ReservationDetails;
 import com.example.demo.util.Systemlogger;
 import javafx.event.ActionEvent;
@@ -13,14 +15,12 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import java.io.IOException;
-import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
-public class AdminReportsController {
+public class AdminReportsController implements ReusableController {
 
     private static final Logger logger = Systemlogger.getLogger();
 
@@ -59,27 +59,27 @@ public class AdminReportsController {
     @FXML
     private Button backButton;
 
-    private DecimalFormat currencyFormat = new DecimalFormat("$#,##0.00");
     private DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("MMM dd, yyyy");
 
-    private static final double TAX_RATE = 0.13; // 13% tax
-
-    // Room prices per night (should match ReservationDetails for consistency)
-    private static final double SINGLE_ROOM_PRICE = 100.00;
-    private static final double DOUBLE_ROOM_PRICE = 150.00;
-    private static final double DELUXE_ROOM_PRICE = 250.00;
-    private static final double PENTHOUSE_PRICE = 350.00;
-
     @FXML
     public void initialize() {
         billView.setVisible(false);
         billView.setManaged(false);
 
-        DatabaseManager.initialize();
-
         logger.info("AdminReportsController initialized. Discount functionality removed.");
     }
 
+    /**
+     * Clears the previous search and hides the last bill.
+     */
+    @Override
+    public void reset() {
+        searchField.clear();
+        setGenerating(false);
+        billView.setVisible(false);
+        billView.setManaged(false);
+    }
+
     /**
      * Handles the action when the "Generate Report" button is clicked.
      * Fetches reservation data from the database based on the entered mobile number
@@ -98,51 +98,64 @@ public class AdminReportsController {
             return;
         }
 
-        List<DatabaseManager.ReservationDisplay> searchResults = DatabaseManager.searchReservationsByPhoneNumber(mobileNumber);
-
-        if (searchResults != null && !searchResults.isEmpty()) {
-            DatabaseManager.ReservationDisplay displayData = searchResults.get(0);
-            String reservationId = displayData.getReservationIdValue();
-
-            Map<String, Object> fullReservationData = DatabaseManager.getReservationById(reservationId);
-
-            if (fullReservationData != null) {
-                Guest guest = (Guest) fullReservationData.get("guest");
-                ReservationDetails details = (ReservationDetails) fullReservationData.get("reservationDetails");
-
-                // Populate general information
-                guestNameLabel.setText(guest.getFullName());
-                reservationIdLabel.setText(details.getReservationId());
-                billIdLabel.setText("BILL-" + details.getReservationId());
-                checkInLabel.setText(details.getCheckInDate().format(dateFormat));
-                checkOutLabel.setText(details.getCheckOutDate().format(dateFormat));
-                billDateLabel.setText(LocalDate.now().format(dateFormat));
-
-                // Calculate charges based on reservation details
-                long numberOfNights = details.getNumberOfNights();
-                double roomCharges = (details.getSingleRooms() * SINGLE_ROOM_PRICE +
-                        details.getDoubleRooms() * DOUBLE_ROOM_PRICE +
-                        details.getDeluxeRooms() * DELUXE_ROOM_PRICE +
-                        details.getPenthouses() * PENTHOUSE_PRICE) * numberOfNights;
-                double taxes = roomCharges * TAX_RATE;
-                double subtotal = roomCharges + taxes;
-                double totalAmountDue = subtotal; // Total is now simply the subtotal
-
-                // Update labels
-                roomChargesLabel.setText(currencyFormat.format(roomCharges));
-                taxesLabel.setText(currencyFormat.format(taxes));
-                subtotalLabel.setText(currencyFormat.format(subtotal));
-                totalAmountLabel.setText(currencyFormat.format(totalAmountDue));
-
-                billView.setVisible(true);
-                billView.setManaged(true);
-                logger.info("Report generated successfully for reservation ID: " + reservationId + " and guest: " + guest.getFullName());
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Data Error", "Could not retrieve full reservation details for ID: " + reservationId);
+        setGenerating(true);
+        // The report is read from one snapshot, so it is consistent even while bookings are committing.
+        AsyncDatabaseManager.getReservationForReport(mobileNumber).whenComplete((fullReservationData, error) -> {
+            if (AsyncDatabaseManager.isCancellation(error)) {
+                return;
+            }
+            setGenerating(false);
+            if (error != null) {
+                showAlert(Alert.AlertType.ERROR, "Data Error", "Could not retrieve reservation details for mobile number: " + mobileNumber);
                 billView.setVisible(false);
                 billView.setManaged(false);
-                logger.severe("Could not retrieve full reservation details for ID: " + reservationId);
+                logger.severe("Could not retrieve reservation details for report: " + error.getMessage());
+                return;
             }
+            showReport(mobileNumber, fullReservationData);
+        });
+    }
+
+    /**
+     * Disables the report button and shows progress on it while the reservation is loading.
+     */
+    private void setGenerating(boolean generating) {
+        generateReportButton.setDisable(generating);
+        generateReportButton.setText(generating ? "Generating..." : "Generate Report");
+        searchField.setDisable(generating);
+    }
+
+    /**
+     * Fills in the bill once the reservation has been read.
+     * @param mobileNumber The mobile number that was searched for.
+     * @param fullReservationData The full record of the first match, or null if nothing matched.
+     */
+    private void showReport(String mobileNumber, Map<String, Object> fullReservationData) {
+        if (fullReservationData != null) {
+            Guest guest = (Guest) fullReservationData.get("guest");
+            ReservationDetails details = (ReservationDetails) fullReservationData.get("reservationDetails");
+
+            // Populate general information
+            guestNameLabel.setText(guest.getFullName());
+            reservationIdLabel.setText(details.getReservationId());
+            billIdLabel.setText("BILL-" + details.getReservationId());
+            checkInLabel.setText(details.getCheckInDate().format(dateFormat));
+            checkOutLabel.setText(details.getCheckOutDate().format(dateFormat));
+            billDateLabel.setText(LocalDate.now().format(dateFormat));
+
+            // Calculate charges based on reservation details
+            PricingEngine.Quote quote = PricingEngine.quote(details);
+            Money totalAmountDue = quote.total(); // Total is now simply the subtotal
+
+            // Update labels
+            roomChargesLabel.setText(quote.roomCharges().toString());
+            taxesLabel.setText(quote.tax().toString());
+            subtotalLabel.setText(quote.total().toString());
+            totalAmountLabel.setText(totalAmountDue.toString());
+
+            billView.setVisible(true);
+            billView.setManaged(true);
+            logger.info("Report generated successfully for reservation ID: " + details.getReservationId() + " and guest: " + guest.getFullName());
         } else {
             showAlert(Alert.AlertType.INFORMATION, "No Report Found", "No reservations found for the mobile number: " + mobileNumber);
             billView.setVisible(false);
@@ -1,6 +1,7 @@
 package com.example.demo.controllers;
 
 import com.example.demo.util.Systemlogger;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -9,27 +10,43 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.util.Duration;
 import com.example.demo.MainApplication;
-import com.example.demo.models.DatabaseManager;
-import com.example.demo.models.DatabaseManager.ReservationDisplay;
+import com.example.demo.models.AsyncDatabaseManager;
+import com.example.demo.models.ReservationPage;
+import com.example.demo.models.ReservationSummary;
 import com.example.demo.models.Guest;
 import com.example.demo.models.ReservationDetails;
 import com.example.demo.util.Systemlogger; // Import the custom logger
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger; // Import the Java logging class
 
-public class GuestSearchManagementController {
+public class GuestSearchManagementController implements ReusableController {
 
     // Get the custom logger instance
     private static final Logger logger = Systemlogger.getLogger();
 
+    // Upper bound on rows returned by a name/email search; results are ranked, so the best matches come first.
+    private static final int GUEST_SEARCH_LIMIT = 200;
+    // Phone searches are read a page at a time as the table scrolls.
+    private static final int PAGE_SIZE = 100;
+    // The next page is requested once a row this close to the end of the loaded rows is shown.
+    private static final int PREFETCH_ROWS = 20;
+    // Typed searches run once the admin stops typing for this long, so a burst of keystrokes sends one query.
+    private static final Duration TYPING_PAUSE = Duration.millis(300);
+    // Typed searches start at this many characters; a shorter prefix matches too much to narrow anything down.
+    private static final int MIN_TYPED_LENGTH = 3;
+    private static final String EMPTY_PROMPT = "Enter a name, email, phone number or ID number to search for reservations.";
+
     @FXML
     private TextField searchField;
 
@@ -37,17 +54,17 @@ public class GuestSearchManagementController {
     private Button searchButton;
 
     @FXML
-    private TableView<ReservationDisplay> guestReservationsTable;
+    private TableView<ReservationSummary> guestReservationsTable;
     @FXML
-    private TableColumn<ReservationDisplay, String> guestNameColumn;
+    private TableColumn<ReservationSummary, String> guestNameColumn;
     @FXML
-    private TableColumn<ReservationDisplay, String> phoneNumberColumn; // New TableColumn for phone number
+    private TableColumn<ReservationSummary, String> phoneNumberColumn; // New TableColumn for phone number
     @FXML
-    private TableColumn<ReservationDisplay, String> reservationIdColumn;
+    private TableColumn<ReservationSummary, String> reservationIdColumn;
     @FXML
-    private TableColumn<ReservationDisplay, String> checkInDateColumn;
+    private TableColumn<ReservationSummary, String> checkInDateColumn;
     @FXML
-    private TableColumn<ReservationDisplay, String> statusColumn;
+    private TableColumn<ReservationSummary, String> statusColumn;
 
     @FXML
     private Button backButton;
@@ -58,18 +75,42 @@ public class GuestSearchManagementController {
     @FXML
     private Button modifyBookingButton;
 
+    private final Label emptyPlaceholder = new Label(EMPTY_PROMPT);
+    private final ProgressIndicator searchingPlaceholder = new ProgressIndicator();
+    private final PauseTransition typingPause = new PauseTransition(TYPING_PAUSE);
+    // The search currently running, cancelled when a newer one starts.
+    private CompletableFuture<ReservationPage> pendingSearch;
+    // The text of the search running or on screen, so typing that ends on the same text does not repeat it.
+    private String searchedText;
+    // Paging state of the phone search on screen; pagedSearchText is null once every page is loaded.
+    private String pagedSearchText;
+    private int lastLoadedId;
+    private CompletableFuture<ReservationPage> pendingPage;
+
     @FXML
     public void initialize() {
         // Set up cell value factories for TableColumns
         guestNameColumn.setCellValueFactory(new PropertyValueFactory<>("guestFullName"));
-        phoneNumberColumn.setCellValueFactory(new PropertyValueFactory<>("phoneNumber")); // Set value factory for new column
+        phoneNumberColumn.setCellValueFactory(new PropertyValueFactory<>("guestPhoneNumber")); // Set value factory for new column
         reservationIdColumn.setCellValueFactory(new PropertyValueFactory<>("reservationIdValue"));
         checkInDateColumn.setCellValueFactory(new PropertyValueFactory<>("checkInDateFormatted"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
 
-        DatabaseManager.initialize();
+        guestReservationsTable.setPlaceholder(emptyPlaceholder);
+        // Rows are only built for what is visible, so a row near the end being shown means the admin scrolled there.
+        guestReservationsTable.setRowFactory(table -> new TableRow<>() {
+            @Override
+            protected void updateItem(ReservationSummary item, boolean empty) {
+                super.updateItem(item, empty);
+                if (!empty && getIndex() >= table.getItems().size() - PREFETCH_ROWS) {
+                    loadNextPage();
+                }
+            }
+        });
 
-        guestReservationsTable.setPlaceholder(new Label("Enter a phone number to search for reservations."));
+        // Search as the admin types, once they pause
+        typingPause.setOnFinished(event -> searchAsTyped());
+        searchField.textProperty().addListener((obs, oldText, newText) -> typingPause.playFromStart());
 
         viewDetailsButton.setDisable(true);
         cancelBookingButton.setDisable(true);
@@ -86,21 +127,205 @@ public class GuestSearchManagementController {
     }
 
     /**
-     * Handles the search action when the search button is clicked.
-     * Searches for reservations by phone number.
+     * Clears the previous search and its results.
+     */
+    @Override
+    public void reset() {
+        clearResults();
+        searchField.clear();
+        // Clearing the field counts as typing; there is nothing to search for
+        typingPause.stop();
+    }
+
+    /**
+     * Handles the search action when the search button is clicked, searching for the text as
+     * it is without waiting for the admin to stop typing.
      * @param event The action event.
      */
     @FXML
     private void handleSearch(ActionEvent event) {
+        typingPause.stop();
         String searchText = searchField.getText().trim();
-        logger.info("Admin searched for guest reservations with phone number: " + searchText);
-        List<ReservationDisplay> results = DatabaseManager.searchReservationsByPhoneNumber(searchText);
+        logger.info("Admin searched for guest reservations with: " + searchText);
+        search(searchText, true);
+    }
 
-        if (results.isEmpty()) {
-            showAlert(Alert.AlertType.INFORMATION, "Search Results", "No reservations found for the given phone number.");
-            logger.warning("No reservations found for phone number: " + searchText);
+    /**
+     * Searches for the text typed so far, once the admin has paused typing. Text too short to
+     * narrow the reservations down clears the table instead of querying the database.
+     */
+    private void searchAsTyped() {
+        String searchText = searchField.getText().trim();
+        if (searchText.equals(searchedText)) {
+            return;
         }
-        guestReservationsTable.setItems(FXCollections.observableArrayList(results));
+        if (searchText.length() < MIN_TYPED_LENGTH) {
+            clearResults();
+            return;
+        }
+        logger.fine("Searching guest reservations as typed: " + searchText);
+        search(searchText, false);
+    }
+
+    /**
+     * Starts a search, cancelling the one still running, if any; only the newest search ever
+     * updates the table. Text containing letters (a name, email or ID proof number) goes to the
+     * full-text guest search; digits only are treated as a phone number, falling back to the
+     * full-text search when no phone number contains them. Phone results arrive a page at a
+     * time: the first page is shown straight away and later pages load as the table is scrolled.
+     * The rows of the previous search stay on screen until the new ones arrive.
+     * @param searchText The text to search for.
+     * @param clicked true if the admin asked for this search with the button, so an empty result
+     *                or a failure is worth an alert; typed searches report them in the table instead.
+     */
+    private void search(String searchText, boolean clicked) {
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
+        stopPaging();
+        searchedText = searchText;
+        CompletableFuture<?> query;
+        CompletableFuture<ReservationPage> search;
+        if (searchText.chars().anyMatch(c -> Character.isLetter(c) || c == '@')) {
+            CompletableFuture<List<ReservationSummary>> guests = AsyncDatabaseManager.searchGuests(searchText, GUEST_SEARCH_LIMIT);
+            query = guests;
+            search = guests.thenApply(ReservationPage::of);
+        } else {
+            CompletableFuture<ReservationPage> phones = AsyncDatabaseManager.searchReservations(searchText, 0, PAGE_SIZE);
+            query = phones;
+            search = phones.thenCompose(page -> page.rows().isEmpty() && !searchText.isEmpty()
+                    ? AsyncDatabaseManager.searchGuests(searchText, GUEST_SEARCH_LIMIT).thenApply(ReservationPage::of)
+                    : CompletableFuture.completedFuture(page));
+        }
+        pendingSearch = search;
+        setSearching(true);
+
+        search.whenComplete((page, error) -> {
+            if (AsyncDatabaseManager.isCancellation(error)) {
+                // A newer search replaced this one; stop its query too if it is still running
+                query.cancel(true);
+                return;
+            }
+            if (search != pendingSearch) {
+                return;
+            }
+            pendingSearch = null;
+            setSearching(false);
+            if (error != null) {
+                logger.severe("Guest search failed: " + error.getMessage());
+                // Search again next time, rather than treating the failed text as already shown
+                searchedText = null;
+                guestReservationsTable.getItems().clear();
+                emptyPlaceholder.setText("The search could not be completed. Please try again.");
+                if (clicked) {
+                    showAlert(Alert.AlertType.ERROR, "Search Failed", "The search could not be completed. Please try again.");
+                }
+                return;
+            }
+            if (page.rows().isEmpty()) {
+                emptyPlaceholder.setText("No reservations found matching \"" + searchText + "\".");
+                if (clicked) {
+                    showAlert(Alert.AlertType.INFORMATION, "Search Results", "No reservations found matching \"" + searchText + "\".");
+                    logger.warning("No reservations found for search: " + searchText);
+                }
+            }
+            if (page.hasMore()) {
+                pagedSearchText = searchText;
+                lastLoadedId = page.lastReservationId();
+            }
+            guestReservationsTable.setItems(FXCollections.observableArrayList(page.rows()));
+        });
+    }
+
+    /**
+     * Fetches the page after the last loaded row and appends it to the table.
+     * Does nothing if every page is loaded or a page is already on its way.
+     */
+    private void loadNextPage() {
+        if (pagedSearchText == null || pendingPage != null) {
+            return;
+        }
+        CompletableFuture<ReservationPage> next = AsyncDatabaseManager.searchReservations(pagedSearchText, lastLoadedId, PAGE_SIZE);
+        pendingPage = next;
+        next.whenComplete((page, error) -> {
+            if (next != pendingPage || AsyncDatabaseManager.isCancellation(error)) {
+                return;
+            }
+            pendingPage = null;
+            if (error != null) {
+                logger.severe("Loading the next page of search results failed: " + error.getMessage());
+                pagedSearchText = null;
+                return;
+            }
+            guestReservationsTable.getItems().addAll(page.rows());
+            lastLoadedId = page.lastReservationId();
+            if (!page.hasMore()) {
+                pagedSearchText = null;
+            }
+        });
+    }
+
+    /**
+     * Cancels any search or page still running and empties the table.
+     */
+    private void clearResults() {
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+            pendingSearch = null;
+        }
+        stopPaging();
+        searchedText = null;
+        setSearching(false);
+        emptyPlaceholder.setText(EMPTY_PROMPT);
+        guestReservationsTable.getItems().clear();
+    }
+
+    private void stopPaging() {
+        pagedSearchText = null;
+        if (pendingPage != null) {
+            pendingPage.cancel(true);
+            pendingPage = null;
+        }
+    }
+
+    /**
+     * Shows a spinner in an empty table and disables the search button while a search is running.
+     * The table stays usable, so the admin can keep working with the rows already shown.
+     */
+    private void setSearching(boolean searching) {
+        guestReservationsTable.setPlaceholder(searching ? searchingPlaceholder : emptyPlaceholder);
+        searchButton.setDisable(searching);
+    }
+
+    /**
+     * Loads the full reservation and, once it arrives, opens the given screen with it.
+     * The table is disabled while the lookup runs so the admin cannot start a second one.
+     */
+    private void openReservation(String reservationId, ReservationSceneLoader loader) {
+        guestReservationsTable.setDisable(true);
+        AsyncDatabaseManager.getReservationById(reservationId).whenComplete((reservationData, error) -> {
+            if (AsyncDatabaseManager.isCancellation(error)) {
+                return;
+            }
+            guestReservationsTable.setDisable(false);
+            if (reservationData == null) {
+                showAlert(Alert.AlertType.ERROR, "Error", "Could not retrieve full details for reservation ID: " + reservationId);
+                logger.severe("Could not retrieve details for reservation ID: " + reservationId);
+                return;
+            }
+            Guest guest = (Guest) reservationData.get("guest");
+            ReservationDetails details = (ReservationDetails) reservationData.get("reservationDetails");
+            try {
+                loader.load(guest, details);
+            } catch (IOException e) {
+                logger.severe("Failed to open reservation ID " + reservationId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ReservationSceneLoader {
+        void load(Guest guest, ReservationDetails details) throws IOException;
     }
 
     /**
@@ -111,20 +336,11 @@ public class GuestSearchManagementController {
      */
     @FXML
     private void handleViewDetails(ActionEvent event) throws IOException {
-        ReservationDisplay selectedDisplay = guestReservationsTable.getSelectionModel().getSelectedItem();
+        ReservationSummary selectedDisplay = guestReservationsTable.getSelectionModel().getSelectedItem();
         if (selectedDisplay != null) {
             String reservationId = selectedDisplay.getReservationIdValue();
             logger.info("Admin viewing details for reservation ID: " + reservationId);
-            Map<String, Object> reservationData = DatabaseManager.getReservationById(reservationId);
-
-            if (reservationData != null) {
-                Guest guest = (Guest) reservationData.get("guest");
-                ReservationDetails details = (ReservationDetails) reservationData.get("reservationDetails");
-                MainApplication.loadGuestDetailsScene(guest, details);
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Could not retrieve full details for reservation ID: " + reservationId);
-                logger.severe("Could not retrieve details for reservation ID: " + reservationId);
-            }
+            openReservation(reservationId, MainApplication::loadGuestDetailsScene);
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a reservation to view its details.");
             logger.warning("Attempted to view details without selecting a reservation.");
@@ -139,20 +355,11 @@ public class GuestSearchManagementController {
      */
     @FXML
     private void handleModifyBooking(ActionEvent event) throws IOException {
-        ReservationDisplay selectedDisplay = guestReservationsTable.getSelectionModel().getSelectedItem();
+        ReservationSummary selectedDisplay = guestReservationsTable.getSelectionModel().getSelectedItem();
         if (selectedDisplay != null) {
             String reservationId = selectedDisplay.getReservationIdValue();
             logger.info("Admin modifying booking for reservation ID: " + reservationId);
-            Map<String, Object> reservationData = DatabaseManager.getReservationById(reservationId);
-
-            if (reservationData != null) {
-                Guest guest = (Guest) reservationData.get("guest");
-                ReservationDetails details = (ReservationDetails) reservationData.get("reservationDetails");
-                MainApplication.loadAdminGuestDetailsModifyScene(guest, details);
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Could not retrieve full details for reservation ID: " + reservationId);
-                logger.severe("Could not retrieve details for modification of reservation ID: " + reservationId);
-            }
+            openReservation(reservationId, MainApplication::loadAdminGuestDetailsModifyScene);
         } else {
             showAlert(Alert.AlertType.WARNING, "No Selection", "Please select a reservation to modify.");
             logger.warning("Attempted to modify booking without selecting a reservation.");
@@ -166,7 +373,7 @@ public class GuestSearchManagementController {
      */
     @FXML
     private void handleCancelBooking(ActionEvent event) {
-        ReservationDisplay selectedDisplay = guestReservationsTable.getSelectionModel().getSelectedItem();
+        ReservationSummary selectedDisplay = guestReservationsTable.getSelectionModel().getSelectedItem();
         if (selectedDisplay != null) {
             String reservationId = selectedDisplay.getReservationIdValue();
             logger.info("Admin initiated cancellation for reservation ID: " + reservationId);
@@ -179,16 +386,21 @@ public class GuestSearchManagementController {
             Optional<ButtonType> result = confirmationAlert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
                 logger.info("Admin confirmed cancellation of reservation ID: " + reservationId);
-                DatabaseManager.initialize();
-                boolean deleted = DatabaseManager.deleteReservation(reservationId);
-                if (deleted) {
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Reservation ID " + reservationId + " has been successfully cancelled and deleted.");
-                    logger.info("Successfully deleted reservation ID: " + reservationId);
-                    handleSearch(null);
-                } else {
-                    showAlert(Alert.AlertType.ERROR, "Deletion Failed", "Failed to delete reservation ID " + reservationId + ".");
-                    logger.severe("Failed to delete reservation ID: " + reservationId);
-                }
+                cancelBookingButton.setDisable(true);
+                AsyncDatabaseManager.deleteReservation(reservationId).whenComplete((deleted, error) -> {
+                    if (AsyncDatabaseManager.isCancellation(error)) {
+                        return;
+                    }
+                    if (Boolean.TRUE.equals(deleted)) {
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "Reservation ID " + reservationId + " has been successfully cancelled and deleted.");
+                        logger.info("Successfully deleted reservation ID: " + reservationId);
+                        handleSearch(null);
+                    } else {
+                        cancelBookingButton.setDisable(false);
+                        showAlert(Alert.AlertType.ERROR, "Deletion Failed", "Failed to delete reservation ID " + reservationId + ".");
+                        logger.severe("Failed to delete reservation ID: " + reservationId);
+                    }
+                });
             } else {
                 logger.info("Admin cancelled the cancellation process for reservation ID: " + reservationId);
             }
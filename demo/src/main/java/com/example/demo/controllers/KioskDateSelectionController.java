@@ -2,17 +2,32 @@ package com.example.demo.controllers;
 
 import com.example.demo.MainApplication;
 import com.example.demo.models.ReservationDetails;
+import com.example.demo.models.RoomInventory;
+import com.example.demo.models.RoomType;
+import com.example.demo.util.DateCell;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
+import javafx.scene.layout.FlowPane;
 
 import java.io.IOException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-public class KioskDateSelectionController {
+public class KioskDateSelectionController implements ReusableController {
 
     @FXML
     private DatePicker checkInDatePicker;
@@ -26,13 +41,70 @@ public class KioskDateSelectionController {
     @FXML
     private Label validationMessageLabel;
 
+    // Flexible date search
+    @FXML
+    private Spinner<Integer> flexibleRoomCountSpinner;
+
+    @FXML
+    private ComboBox<String> flexibleRoomTypeComboBox;
+
+    @FXML
+    private Spinner<Integer> flexibleNightsSpinner;
+
+    @FXML
+    private CheckBox weekendsOnlyCheckBox;
+
+    @FXML
+    private Label flexibleDatesMessageLabel;
+
+    @FXML
+    private FlowPane flexibleDatesPane;
+
     private ReservationDetails reservationDetails;
 
+    // How far ahead the flexible search looks, and how many dates it offers
+    private static final int FLEXIBLE_SEARCH_DAYS = 365;
+    private static final int FLEXIBLE_SEARCH_RESULTS = 6;
+    private static final int MAX_FLEXIBLE_ROOMS = 10;
+    private static final int MAX_FLEXIBLE_NIGHTS = 14;
+    private static final Set<DayOfWeek> WEEKEND_CHECK_IN_DAYS = EnumSet.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY);
+    private static final DateTimeFormatter FLEXIBLE_DATE_FORMAT = DateTimeFormatter.ofPattern("EEE, MMM d");
+
     @FXML
     public void initialize() {
         // You can add logic here to set default dates or disable past dates.
         // Also ensure the nights label is updated initially
         updateNightsLabel();
+
+        flexibleRoomCountSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, MAX_FLEXIBLE_ROOMS, 1));
+        flexibleNightsSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, MAX_FLEXIBLE_NIGHTS, 2));
+        for (RoomType type : RoomType.values()) {
+            flexibleRoomTypeComboBox.getItems().add(type.getLabel());
+        }
+        flexibleRoomTypeComboBox.setValue(RoomType.SINGLE.getLabel());
+    }
+
+    /**
+     * Clears the previous guest's dates and flexible search.
+     */
+    @Override
+    public void reset() {
+        reservationDetails = null;
+        checkInDatePicker.setValue(null);
+        checkOutDatePicker.setValue(null);
+        // Shade sold-out and nearly full nights, and stop a stay from running through a sold-out night.
+        // Set on every visit so "today" stays current on a kiosk that runs for days.
+        checkInDatePicker.setDayCellFactory(DateCell.forCheckIn(LocalDate.now(), null));
+        checkOutDatePicker.setDayCellFactory(DateCell.forCheckOut(checkInDatePicker::getValue, null));
+        validationMessageLabel.setText("");
+        updateNightsLabel();
+
+        flexibleRoomCountSpinner.getValueFactory().setValue(1);
+        flexibleNightsSpinner.getValueFactory().setValue(2);
+        flexibleRoomTypeComboBox.setValue(RoomType.SINGLE.getLabel());
+        weekendsOnlyCheckBox.setSelected(false);
+        flexibleDatesMessageLabel.setText("");
+        flexibleDatesPane.getChildren().clear();
     }
 
     public void setReservationDetails(ReservationDetails reservation) {
@@ -69,6 +141,49 @@ public class KioskDateSelectionController {
         MainApplication.loadGuestSelectionScene(reservationDetails);
     }
 
+    /**
+     * Searches the coming year for the nearest check-in dates where the chosen rooms are free
+     * for the whole stay, and offers each as a button that fills in the date pickers.
+     * @param event The action event from the button click.
+     */
+    @FXML
+    private void handleFindDates(ActionEvent event) {
+        flexibleDatesPane.getChildren().clear();
+        RoomType roomType = null;
+        for (RoomType type : RoomType.values()) {
+            if (type.getLabel().equals(flexibleRoomTypeComboBox.getValue())) {
+                roomType = type;
+            }
+        }
+        if (roomType == null) {
+            flexibleDatesMessageLabel.setText("Please choose a room type.");
+            return;
+        }
+        int rooms = flexibleRoomCountSpinner.getValue();
+        int nights = flexibleNightsSpinner.getValue();
+        Set<DayOfWeek> checkInDays = weekendsOnlyCheckBox.isSelected() ? WEEKEND_CHECK_IN_DAYS : Set.of();
+
+        List<LocalDate> dates = RoomInventory.findCheckInDates(Map.of(roomType, rooms), nights, LocalDate.now(),
+                FLEXIBLE_SEARCH_DAYS, checkInDays, FLEXIBLE_SEARCH_RESULTS);
+        if (dates.isEmpty()) {
+            flexibleDatesMessageLabel.setText("Sorry, no dates in the next year have " + rooms + " " + roomType.getLabel() +
+                    " room(s) free for " + nights + " night(s).");
+            return;
+        }
+        flexibleDatesMessageLabel.setText("The nearest available dates. Tap one to select it:");
+        for (LocalDate checkIn : dates) {
+            LocalDate checkOut = checkIn.plusDays(nights);
+            Button dateButton = new Button(checkIn.format(FLEXIBLE_DATE_FORMAT) + " - " + checkOut.format(FLEXIBLE_DATE_FORMAT));
+            dateButton.setOnAction(e -> {
+                checkInDatePicker.setValue(checkIn);
+                checkOutDatePicker.setValue(checkOut);
+                validationMessageLabel.setText("");
+                updateNightsLabel();
+            });
+            flexibleDatesPane.getChildren().add(dateButton);
+        }
+    }
+
     @FXML
     private void handleBack(ActionEvent event) throws IOException {
         MainApplication.loadNewScene("KioskWelcomePage-01.fxml");
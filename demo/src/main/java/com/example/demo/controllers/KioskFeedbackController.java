@@ -1,10 +1,11 @@
 package com.example.demo.controllers;
 
 import com.example.demo.MainApplication;
-import com.example.demo.models.DatabaseManager;
+import com.example.demo.models.AsyncDatabaseManager;
 import com.example.demo.util.Systemlogger;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.Slider;
 import javafx.scene.control.TextArea;
@@ -20,7 +21,7 @@ import java.util.logging.Logger;
  * This class handles guest feedback submission, including a rating slider and
  * a comments section. It also manages navigation back to the main welcome page.
  */
-public class KioskFeedbackController {
+public class KioskFeedbackController implements ReusableController {
 
     // Declare and initialize a logger instance for this controller.
     private static final Logger logger = Systemlogger.getLogger();
@@ -33,6 +34,23 @@ public class KioskFeedbackController {
     private TextArea commentsTextArea; // TextArea for guest comments
     @FXML
     private TextField phoneNumberTextField; // TextField for guest's phone number
+    @FXML
+    private Button submitFeedbackButton;
+
+    // The rating the slider starts at in the FXML
+    private static final double DEFAULT_RATING = 3.0;
+
+    /**
+     * Clears the previous guest's rating, comments and phone number.
+     */
+    @Override
+    public void reset() {
+        ratingSlider.setValue(DEFAULT_RATING);
+        commentsTextArea.clear();
+        phoneNumberTextField.clear();
+        messageLabel.setText("");
+        submitFeedbackButton.setDisable(false);
+    }
 
     /**
      * Handles the "Submit Feedback" button action.
@@ -49,14 +67,24 @@ public class KioskFeedbackController {
             String comments = commentsTextArea.getText();
             String phoneNumber = phoneNumberTextField.getText();
 
-            // Use the centralized method from the DatabaseManager to save feedback.
-            // This is the correct way to use your database, which is already configured for SQLite.
-            DatabaseManager.insertFeedback(phoneNumber, rating, comments);
-
-            // Display a success message and log the event
-            messageLabel.setText("Thank you for your feedback! It has been submitted successfully.");
-            logger.log(Level.INFO, "Feedback submitted successfully: Phone Number: {0}, Rating: {1}, Comments: {2}",
-                    new Object[]{phoneNumber, rating, comments});
+            // Save in the background so the kiosk stays responsive while the database is busy.
+            submitFeedbackButton.setDisable(true);
+            messageLabel.setText("Submitting your feedback...");
+            AsyncDatabaseManager.insertFeedback(phoneNumber, rating, comments).whenComplete((saved, error) -> {
+                if (AsyncDatabaseManager.isCancellation(error)) {
+                    return;
+                }
+                if (error != null) {
+                    logger.log(Level.SEVERE, "An unexpected error occurred during feedback submission.", error);
+                    messageLabel.setText("An unexpected error occurred.");
+                    submitFeedbackButton.setDisable(false);
+                    return;
+                }
+                // Display a success message and log the event
+                messageLabel.setText("Thank you for your feedback! It has been submitted successfully.");
+                logger.log(Level.INFO, "Feedback submitted successfully: Phone Number: {0}, Rating: {1}, Comments: {2}",
+                        new Object[]{phoneNumber, rating, comments});
+            });
 
             // The navigation is now delayed to allow the user to see the success message.
             // Consider adding a timer or a confirmation dialog to proceed.
@@ -3,6 +3,7 @@ package com.example.demo.controllers;
 import com.example.demo.MainApplication;
 import com.example.demo.models.Guest;
 import com.example.demo.models.ReservationDetails;
+import com.example.demo.models.RoomHolds;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -13,7 +14,7 @@ import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import java.io.IOException;
 
-public class KioskGuestDetailsController {
+public class KioskGuestDetailsController implements ReusableController {
 
     @FXML
     private TextField fullNameField;
@@ -51,8 +52,30 @@ public class KioskGuestDetailsController {
         idProofTypeComboBox.getItems().addAll("Passport", "Driver's License", "Health Card");
     }
 
+    /**
+     * Clears the previous guest's personal details, so the next guest at the kiosk never sees them.
+     */
+    @Override
+    public void reset() {
+        reservationDetails = null;
+        fullNameField.clear();
+        phoneNumberField.clear();
+        emailField.clear();
+        addressTextArea.clear();
+        provinceComboBox.setValue(null);
+        cityField.clear();
+        postalCodeField.clear();
+        idProofTypeComboBox.setValue(null);
+        idProofNumberField.clear();
+        totalRoomsLabel.setText("");
+        totalGuestsLabel.setText("");
+    }
+
     public void setReservationDetails(ReservationDetails reservation) {
         this.reservationDetails = reservation;
+        if (reservation != null) {
+            RoomHolds.extend(reservation.getHoldId());
+        }
         updateLabels();
     }
 
@@ -2,6 +2,7 @@ package com.example.demo.controllers;
 
 import com.example.demo.MainApplication;
 import com.example.demo.models.ReservationDetails;
+import com.example.demo.models.RoomSelectionPrefetch;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -11,7 +12,7 @@ import javafx.scene.control.Alert;
 
 import java.io.IOException;
 
-public class KioskGuestSelectionController {
+public class KioskGuestSelectionController implements ReusableController {
 
     @FXML
     private Spinner<Integer> adultsSpinner;
@@ -36,11 +37,25 @@ public class KioskGuestSelectionController {
         // Add listeners to update the total guests label
         adultsSpinner.valueProperty().addListener((obs, oldValue, newValue) -> updateGuests());
         childrenSpinner.valueProperty().addListener((obs, oldValue, newValue) -> updateGuests());
+        // Start on the next screen's rooms and suggestions as soon as the party size is known
+        adultsSpinner.valueProperty().addListener((obs, oldValue, newValue) -> prefetchRoomOptions());
+        childrenSpinner.valueProperty().addListener((obs, oldValue, newValue) -> prefetchRoomOptions());
 
         // Initial update
         updateGuests();
     }
 
+    /**
+     * Clears the previous guest's party size.
+     */
+    @Override
+    public void reset() {
+        reservationDetails = null;
+        adultsSpinner.getValueFactory().setValue(0);
+        childrenSpinner.getValueFactory().setValue(0);
+        validationMessageLabel.setText("");
+    }
+
     public void setReservationDetails(ReservationDetails reservation) {
         this.reservationDetails = reservation;
         if (this.reservationDetails != null) {
@@ -49,6 +64,13 @@ public class KioskGuestSelectionController {
         }
     }
 
+    private void prefetchRoomOptions() {
+        if (reservationDetails != null) {
+            RoomSelectionPrefetch.start(reservationDetails.getCheckInDate(), reservationDetails.getCheckOutDate(),
+                    adultsSpinner.getValue(), childrenSpinner.getValue());
+        }
+    }
+
     @FXML
     private void handleBack(ActionEvent event) throws IOException {
         MainApplication.loadDateSelectionScene(reservationDetails);
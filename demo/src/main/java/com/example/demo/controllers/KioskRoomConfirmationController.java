@@ -1,9 +1,13 @@
 package com.example.demo.controllers;
 
 import com.example.demo.MainApplication;
+import com.example.demo.models.BookingResult;
 import com.example.demo.models.Guest;
+import com.example.demo.models.Money;
+import com.example.demo.models.PricingEngine;
 import com.example.demo.models.ReservationDetails;
-import com.example.demo.models.DatabaseManager; // Correct import
+import com.example.demo.models.RoomHolds;
+import com.example.demo.models.AsyncDatabaseManager;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -11,12 +15,11 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import java.io.IOException;
 import java.sql.SQLException; // Import SQLException
-import java.text.DecimalFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
-public class KioskRoomConfirmationController {
+public class KioskRoomConfirmationController implements ReusableController {
 
     private static final Logger logger = Logger.getLogger(KioskRoomConfirmationController.class.getName());
 
@@ -48,20 +51,22 @@ public class KioskRoomConfirmationController {
     private Guest guest;
     private ReservationDetails reservationDetails;
 
-    // Room prices per night (should match ReservationDetails for consistency)
-    private static final double SINGLE_ROOM_PRICE = 100.00;
-    private static final double DOUBLE_ROOM_PRICE = 150.00;
-    private static final double DELUXE_ROOM_PRICE = 250.00;
-    private static final double PENTHOUSE_PRICE = 350.00; // Assuming this is the price for Penthouse
-
-    private static final double TAX_RATE = 0.13; // 13% tax
+    /**
+     * Re-enables the buttons a previous save may have left disabled.
+     */
+    @Override
+    public void reset() {
+        setSaving(false);
+        messageLabel.setText("");
+    }
 
     public void setGuestAndReservationDetails(Guest guest, ReservationDetails reservationDetails) {
         this.guest = guest;
         this.reservationDetails = reservationDetails;
+        // Keep the selected rooms held while the guest reviews the booking
+        RoomHolds.extend(reservationDetails.getHoldId());
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-        DecimalFormat df = new DecimalFormat("$#,##0.00");
 
         // Display Guest Name
         guestNameLabel.setText(guest.getFullName());
@@ -96,18 +101,11 @@ public class KioskRoomConfirmationController {
         }
 
         // Calculate prices
-        long numberOfNights = reservationDetails.getNumberOfNights();
-        double subTotal = (reservationDetails.getSingleRooms() * SINGLE_ROOM_PRICE +
-                reservationDetails.getDoubleRooms() * DOUBLE_ROOM_PRICE +
-                reservationDetails.getDeluxeRooms() * DELUXE_ROOM_PRICE +
-                reservationDetails.getPenthouses() * PENTHOUSE_PRICE) * numberOfNights;
-
-        double taxAmount = subTotal * TAX_RATE;
-        double estimatedTotal = subTotal + taxAmount;
+        PricingEngine.Quote quote = PricingEngine.quote(reservationDetails);
 
-        subTotalLabel.setText(df.format(subTotal));
-        taxLabel.setText(df.format(taxAmount));
-        estimatedTotalLabel.setText(df.format(estimatedTotal));
+        subTotalLabel.setText(quote.roomCharges().toString());
+        taxLabel.setText(quote.tax().toString());
+        estimatedTotalLabel.setText(quote.total().toString());
 
         messageLabel.setText("Please review your booking details before confirming.");
     }
@@ -123,39 +121,81 @@ public class KioskRoomConfirmationController {
 
         try {
             // Recalculate estimated total to ensure it's up-to-date before saving
-            long numberOfNights = reservationDetails.getNumberOfNights();
-            double subTotal = (reservationDetails.getSingleRooms() * SINGLE_ROOM_PRICE +
-                    reservationDetails.getDoubleRooms() * DOUBLE_ROOM_PRICE +
-                    reservationDetails.getDeluxeRooms() * DELUXE_ROOM_PRICE +
-                    reservationDetails.getPenthouses() * PENTHOUSE_PRICE) * numberOfNights;
-            double taxAmount = subTotal * TAX_RATE;
-            double finalEstimatedTotal = subTotal + taxAmount; // No discount applied for saving to DB
-
-            // First, initialize the database connection and table if they don't exist
-            DatabaseManager.initialize();
-
-            // Then, insert the reservation data into the database
-            // Pass the final calculated total to the database manager
-            DatabaseManager.insertReservation(guest, reservationDetails, finalEstimatedTotal);
-
-            // In a real application, you would get the actual reservation ID from the DB here
-            String dummyReservationId = "RES-" + System.currentTimeMillis(); // Placeholder ID
+            Money finalEstimatedTotal = PricingEngine.quote(reservationDetails).total(); // No discount applied for saving to DB
 
-            // Navigate to the Booking Successful page
-            MainApplication.loadBookingSuccessfulScene(dummyReservationId);
+            // Claim the rooms and save the reservation in the background
+            // Pass the final calculated total to the database manager
+            setSaving(true);
+            AsyncDatabaseManager.reserveAndInsert(guest, reservationDetails, finalEstimatedTotal).whenComplete((result, error) -> {
+                if (AsyncDatabaseManager.isCancellation(error)) {
+                    return;
+                }
+                if (error != null) {
+                    setSaving(false);
+                    showSaveError(error);
+                    return;
+                }
+                try {
+                    switch (result.outcome()) {
+                        case BOOKED -> {
+                            reservationDetails.setReservationId(result.reservationId());
+                            // Navigate to the Booking Successful page
+                            MainApplication.loadBookingSuccessfulScene(result.reservationId());
+                        }
+                        case UNAVAILABLE -> showRoomsTaken();
+                        case FAILED -> {
+                            setSaving(false);
+                            showSaveError(new IllegalStateException("The reservation could not be saved."));
+                        }
+                    }
+                } catch (IOException e) {
+                    setSaving(false);
+                    showSaveError(e);
+                }
+            });
 
         } catch (Exception e) { // Catch generic Exception to ensure all errors are caught
-            logger.log(Level.SEVERE, "Error saving reservation: " + e.getMessage(), e); // Log the full stack trace
-
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle("Database Error");
-            alert.setHeaderText("Failed to Save Reservation");
-            alert.setContentText("An error occurred while saving your reservation: " + e.getMessage() +
-                    "\nPlease check the console for more details or contact support.");
-            alert.showAndWait();
+            showSaveError(e);
+        }
+    }
+
+    /**
+     * Disables the booking buttons and tells the guest the booking is being saved.
+     */
+    private void setSaving(boolean saving) {
+        confirmBookingButton.setDisable(saving);
+        backButton.setDisable(saving);
+        if (saving) {
+            messageLabel.setText("Saving your booking, please wait...");
         }
     }
 
+    /**
+     * Another booking took some of the selected rooms first. Sends the guest back to room
+     * selection, where the spinners now reflect what is still free.
+     */
+    private void showRoomsTaken() throws IOException {
+        logger.info("Selected rooms were booked by someone else before this booking was confirmed.");
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Rooms No Longer Available");
+        alert.setHeaderText("Some of your rooms were just booked");
+        alert.setContentText("One or more of the rooms you selected are no longer available for your dates. " +
+                "Please choose your rooms again.");
+        alert.showAndWait();
+        MainApplication.loadRoomSelectionScene(reservationDetails);
+    }
+
+    private void showSaveError(Throwable e) {
+        logger.log(Level.SEVERE, "Error saving reservation: " + e.getMessage(), e); // Log the full stack trace
+
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Database Error");
+        alert.setHeaderText("Failed to Save Reservation");
+        alert.setContentText("An error occurred while saving your reservation: " + e.getMessage() +
+                "\nPlease check the console for more details or contact support.");
+        alert.showAndWait();
+    }
+
     /**
      * This method is for the "Back" button.
      * It navigates back to the KioskGuestDetailsPage-05.fxml.
@@ -1,23 +1,36 @@
 package com.example.demo.controllers;
 
 import com.example.demo.MainApplication;
+import com.example.demo.models.PricingEngine;
 import com.example.demo.models.ReservationDetails;
+import com.example.demo.models.RoomHolds;
+import com.example.demo.models.RoomMixRecommender;
+import com.example.demo.models.RoomSelectionPrefetch;
+import com.example.demo.models.RoomType;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
+import javafx.scene.layout.HBox;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
 
-public class KioskRoomSelectionController {
+public class KioskRoomSelectionController implements ReusableController {
 
     // FXML elements
     @FXML
     private Label summaryLabel;
     @FXML
     private Label selectionMessageLabel;
+    @FXML
+    private HBox suggestionsBox;
 
     // Spinners for room selection
     @FXML
@@ -31,28 +44,16 @@ public class KioskRoomSelectionController {
 
     private ReservationDetails reservationDetails;
 
-    // Room prices per night
-    private static final double SINGLE_ROOM_PRICE = 100.00;
-    private static final double DOUBLE_ROOM_PRICE = 150.00;
-    private static final double DELUXE_ROOM_PRICE = 250.00;
-    private static final double PENTHOUSE_PRICE = 350.00; // Price for Penthouse
-
-    // Room capacities
-    private static final int SINGLE_ADULT_CAPACITY = 1;
-    private static final int DOUBLE_ADULT_CAPACITY = 2;
-    private static final int DELUXE_ADULT_CAPACITY = 3;
-    private static final int DELUXE_CHILD_CAPACITY = 1;
-    private static final int PENTHOUSE_ADULT_CAPACITY = 4;
-    private static final int PENTHOUSE_CHILD_CAPACITY = 2;
-
+    // Most rooms of one type a single kiosk booking may take, even when more are free.
+    private static final int MAX_ROOMS_PER_TYPE = RoomMixRecommender.MAX_ROOMS_PER_TYPE;
 
     @FXML
     public void initialize() {
         // Initialize spinners
-        singleRoomSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 10, 0));
-        doubleRoomSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 10, 0));
-        deluxeRoomSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 10, 0));
-        penthousesSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 10, 0));
+        singleRoomSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, MAX_ROOMS_PER_TYPE, 0));
+        doubleRoomSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, MAX_ROOMS_PER_TYPE, 0));
+        deluxeRoomSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, MAX_ROOMS_PER_TYPE, 0));
+        penthousesSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, MAX_ROOMS_PER_TYPE, 0));
 
         // Add listeners to spinners to update summary in real-time
         singleRoomSpinner.valueProperty().addListener((obs, oldValue, newValue) -> updateReservationAndSummary());
@@ -61,10 +62,40 @@ public class KioskRoomSelectionController {
         penthousesSpinner.valueProperty().addListener((obs, oldValue, newValue) -> updateReservationAndSummary());
     }
 
+    /**
+     * Clears the previous selection and lifts the availability caps it applied.
+     */
+    @Override
+    public void reset() {
+        // Detach the old reservation first, so zeroing the spinners does not write into it
+        reservationDetails = null;
+        for (Spinner<Integer> spinner : List.of(singleRoomSpinner, doubleRoomSpinner, deluxeRoomSpinner, penthousesSpinner)) {
+            capSpinner(spinner, MAX_ROOMS_PER_TYPE);
+            spinner.getValueFactory().setValue(0);
+        }
+        selectionMessageLabel.setText("");
+        summaryLabel.setText("");
+        suggestionsBox.getChildren().clear();
+        suggestionsBox.setVisible(false);
+        suggestionsBox.setManaged(false);
+    }
+
     public void setReservationDetails(ReservationDetails reservation) {
+        setReservationDetails(reservation, null);
+    }
+
+    /**
+     * @param reservation The reservation to select rooms for.
+     * @param prefetched Room options already worked out for its stay and party, or null to work them out here.
+     */
+    public void setReservationDetails(ReservationDetails reservation, RoomSelectionPrefetch.RoomOptions prefetched) {
         this.reservationDetails = reservation;
         if (this.reservationDetails != null) {
-            // Set spinner values from existing reservation details
+            // Coming back to change the selection: give up the held rooms so they count as free again
+            RoomHolds.release(reservation.getHoldId());
+            reservation.setHoldId(null);
+            applyAvailability(prefetched);
+            // Set spinner values from existing reservation details; the capped spinners clamp them
             singleRoomSpinner.getValueFactory().setValue(reservation.getSingleRooms());
             doubleRoomSpinner.getValueFactory().setValue(reservation.getDoubleRooms());
             deluxeRoomSpinner.getValueFactory().setValue(reservation.getDeluxeRooms());
@@ -73,6 +104,66 @@ public class KioskRoomSelectionController {
         }
     }
 
+    /**
+     * Caps each spinner at the rooms of its type that are free on every night of the stay,
+     * and tells the guest which types are sold out for their dates.
+     */
+    private void applyAvailability(RoomSelectionPrefetch.RoomOptions options) {
+        if (reservationDetails.getCheckInDate() == null || reservationDetails.getCheckOutDate() == null) {
+            return;
+        }
+        if (options == null) {
+            options = RoomSelectionPrefetch.optionsFor(reservationDetails);
+        }
+        Map<RoomType, Integer> free = options.free();
+        capSpinner(singleRoomSpinner, free.get(RoomType.SINGLE));
+        capSpinner(doubleRoomSpinner, free.get(RoomType.DOUBLE));
+        capSpinner(deluxeRoomSpinner, free.get(RoomType.DELUXE));
+        capSpinner(penthousesSpinner, free.get(RoomType.PENTHOUSE));
+
+        StringJoiner soldOut = new StringJoiner(", ");
+        for (Map.Entry<RoomType, Integer> entry : free.entrySet()) {
+            if (entry.getValue() == 0) {
+                soldOut.add(entry.getKey().getLabel());
+            }
+        }
+        if (soldOut.length() > 0) {
+            selectionMessageLabel.setText("Sold out for your dates: " + soldOut + ".");
+        }
+        showSuggestions(options.suggestions());
+    }
+
+    /**
+     * Offers the cheapest and the fewest-room mix that fit the party and are free for the stay,
+     * each as a button that fills in the spinners.
+     */
+    private void showSuggestions(List<RoomMixRecommender.Suggestion> suggestions) {
+        suggestionsBox.getChildren().clear();
+        for (int i = 0; i < suggestions.size(); i++) {
+            RoomMixRecommender.Suggestion suggestion = suggestions.get(i);
+            String heading = i == 0 ? "Best price" : "Fewest rooms";
+            Button button = new Button(heading + ": " + suggestion.describe() + " (" + suggestion.roomCharges() + ")");
+            button.setOnAction(e -> applySuggestion(suggestion));
+            suggestionsBox.getChildren().add(button);
+        }
+        suggestionsBox.setVisible(!suggestions.isEmpty());
+        suggestionsBox.setManaged(!suggestions.isEmpty());
+    }
+
+    private void applySuggestion(RoomMixRecommender.Suggestion suggestion) {
+        singleRoomSpinner.getValueFactory().setValue(suggestion.rooms().get(RoomType.SINGLE));
+        doubleRoomSpinner.getValueFactory().setValue(suggestion.rooms().get(RoomType.DOUBLE));
+        deluxeRoomSpinner.getValueFactory().setValue(suggestion.rooms().get(RoomType.DELUXE));
+        penthousesSpinner.getValueFactory().setValue(suggestion.rooms().get(RoomType.PENTHOUSE));
+        selectionMessageLabel.setText("");
+    }
+
+    private void capSpinner(Spinner<Integer> spinner, int free) {
+        SpinnerValueFactory.IntegerSpinnerValueFactory factory =
+                (SpinnerValueFactory.IntegerSpinnerValueFactory) spinner.getValueFactory();
+        factory.setMax(Math.min(MAX_ROOMS_PER_TYPE, free));
+    }
+
     private void updateSummary() {
         if (summaryLabel != null && reservationDetails != null) {
             summaryLabel.setText(reservationDetails.getSummary());
@@ -90,14 +181,8 @@ public class KioskRoomSelectionController {
             reservationDetails.setDeluxeRooms(deluxeRoomSpinner.getValue());
             reservationDetails.setPenthouses(penthousesSpinner.getValue());
 
-            // Calculate estimated price based on room selection and night count
-            double estimatedPrice = (singleRoomSpinner.getValue() * SINGLE_ROOM_PRICE +
-                    doubleRoomSpinner.getValue() * DOUBLE_ROOM_PRICE +
-                    deluxeRoomSpinner.getValue() * DELUXE_ROOM_PRICE +
-                    penthousesSpinner.getValue() * PENTHOUSE_PRICE) *
-                    reservationDetails.getNumberOfNights();
-
-            reservationDetails.setEstimatedPrice(estimatedPrice);
+            // Estimated price is the room charges for the selected nights, before tax
+            reservationDetails.setEstimatedPrice(PricingEngine.quote(reservationDetails).roomCharges());
 
             updateSummary();
         }
@@ -150,15 +235,13 @@ public class KioskRoomSelectionController {
         int totalAdults = reservationDetails.getNumberOfAdults();
         int totalChildren = reservationDetails.getNumberOfChildren(); // FIX: Changed getChildren() to getNumberOfChildren()
 
-        int totalAdultCapacity = (singleRoomSpinner.getValue() * SINGLE_ADULT_CAPACITY) +
-                (doubleRoomSpinner.getValue() * DOUBLE_ADULT_CAPACITY) +
-                (deluxeRoomSpinner.getValue() * DELUXE_ADULT_CAPACITY) +
-                (penthousesSpinner.getValue() * PENTHOUSE_ADULT_CAPACITY);
+        Map<RoomType, Integer> selectedRooms = new EnumMap<>(RoomType.class);
+        selectedRooms.put(RoomType.SINGLE, singleRoomSpinner.getValue());
+        selectedRooms.put(RoomType.DOUBLE, doubleRoomSpinner.getValue());
+        selectedRooms.put(RoomType.DELUXE, deluxeRoomSpinner.getValue());
+        selectedRooms.put(RoomType.PENTHOUSE, penthousesSpinner.getValue());
 
-        int totalChildCapacity = (deluxeRoomSpinner.getValue() * DELUXE_CHILD_CAPACITY) +
-                (penthousesSpinner.getValue() * PENTHOUSE_CHILD_CAPACITY);
-
-        if (totalAdults > totalAdultCapacity || totalChildren > totalChildCapacity) {
+        if (!RoomMixRecommender.fits(totalAdults, totalChildren, selectedRooms)) {
             String errorMessage = "The selected rooms cannot accommodate all guests. Please adjust your room selection to fit " +
                     totalAdults + " adult(s) and " + totalChildren + " child(ren).";
             showAlert(Alert.AlertType.ERROR, "Capacity Mismatch", errorMessage);
@@ -189,6 +272,16 @@ public class KioskRoomSelectionController {
         reservationDetails.setRoomType(roomTypeSummaryBuilder.toString());
         // --- END NEW LOGIC ---
 
+        // Hold the rooms while the guest enters their details, so no other kiosk can take them
+        String holdId = RoomHolds.place(reservationDetails);
+        if (holdId == null) {
+            showAlert(Alert.AlertType.WARNING, "Rooms No Longer Available",
+                    "Some of the rooms you selected were just booked. Please adjust your selection.");
+            applyAvailability(null);
+            return;
+        }
+        reservationDetails.setHoldId(holdId);
+
         // Proceed to the next scene (Guest Details)
         MainApplication.loadRoomDetailsScene(reservationDetails);
     }
@@ -0,0 +1,12 @@
+package com.example.demo.controllers;
+
+/**
+ * A controller whose view is loaded once and shown again on every visit. Its fields and controls
+ * still hold whatever the previous visit left behind, so {@link #reset()} puts the screen back the
+ * way a freshly loaded view looks. It runs on the JavaFX thread each time the view is shown,
+ * before the screen is handed its reservation or guest.
+ */
+public interface ReusableController {
+
+    void reset();
+}
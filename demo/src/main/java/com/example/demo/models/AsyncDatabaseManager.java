@@ -0,0 +1,161 @@
+package com.example.demo.models;
+
+import javafx.application.Platform;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Non-blocking front end to {@link DatabaseManager} for controllers.
+ * Each call runs on its own virtual thread and returns a CompletableFuture that is completed
+ * on the JavaFX Application Thread, so callbacks such as thenAccept may update controls directly.
+ * <p>
+ * Cancelling a future drops its result. Reads are also interrupted, which releases a caller
+ * still waiting for a pooled connection. Writes are never interrupted once started; they run
+ * to completion (or roll back) and only the UI callback is skipped.
+ * {@link #cancelPending()} cancels every outstanding future and is called whenever the
+ * application switches scenes, so a slow query can never update a screen that has gone.
+ */
+public class AsyncDatabaseManager {
+
+    private static final Logger logger = Logger.getLogger(AsyncDatabaseManager.class.getName());
+
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private static final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+
+    public static CompletableFuture<List<ReservationSummary>> searchReservationsByPhoneNumber(String phoneNumber) {
+        return read(() -> DatabaseManager.searchReservationsByPhoneNumber(phoneNumber));
+    }
+
+    public static CompletableFuture<ReservationPage> searchReservations(String phoneNumber, int afterId, int pageSize) {
+        return read(() -> DatabaseManager.searchReservations(phoneNumber, afterId, pageSize));
+    }
+
+    public static CompletableFuture<List<ReservationSummary>> searchGuests(String query, int limit) {
+        return read(() -> DatabaseManager.searchGuests(query, limit));
+    }
+
+    public static CompletableFuture<Map<String, Object>> getReservationById(String reservationId) {
+        return read(() -> DatabaseManager.getReservationById(reservationId));
+    }
+
+    public static CompletableFuture<Map<String, Object>> getReservationForReport(String phoneNumber) {
+        return read(() -> {
+            try {
+                return DatabaseManager.getReservationForReport(phoneNumber);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    public static CompletableFuture<List<ReservationSummary>> getReservationsForNext24Hours() {
+        return read(DatabaseManager::getReservationsForNext24Hours);
+    }
+
+    public static CompletableFuture<List<String>> findRoomConflicts(int reservationId, String roomNumbers, ReservationDetails details) {
+        return read(() -> {
+            try {
+                return RoomAssigner.findConflicts(reservationId, roomNumbers, details);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    public static CompletableFuture<BookingResult> reserveAndInsert(Guest guest, ReservationDetails details, Money finalEstimatedTotal) {
+        return write(() -> DatabaseManager.reserveAndInsert(guest, details, finalEstimatedTotal));
+    }
+
+    public static CompletableFuture<String> insertReservation(Guest guest, ReservationDetails details, Money finalEstimatedTotal) {
+        return write(() -> DatabaseManager.insertReservation(guest, details, finalEstimatedTotal));
+    }
+
+    public static CompletableFuture<Boolean> updateReservation(Guest guest, ReservationDetails details) {
+        return write(() -> DatabaseManager.updateReservation(guest, details));
+    }
+
+    public static CompletableFuture<Boolean> deleteReservation(String reservationId) {
+        return write(() -> DatabaseManager.deleteReservation(reservationId));
+    }
+
+    public static CompletableFuture<Boolean> saveCheckoutDetails(String reservationId, Money finalPrice) {
+        return write(() -> DatabaseManager.saveCheckoutDetails(reservationId, finalPrice));
+    }
+
+    public static CompletableFuture<Boolean> insertFeedback(String phoneNumber, int rating, String comment) {
+        return write(() -> DatabaseManager.insertFeedback(phoneNumber, rating, comment));
+    }
+
+    /**
+     * Cancels every future that has not completed yet. Called on scene changes.
+     */
+    public static void cancelPending() {
+        for (CompletableFuture<?> future : pending) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Tells a cancelled call apart from a failed one in a whenComplete/handle callback.
+     * Cancelled calls should simply be ignored: their screen is gone or a newer call replaced them.
+     * @param error The error passed to the callback, may be null.
+     * @return true if the call, or a stage it depended on, was cancelled.
+     */
+    public static boolean isCancellation(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof CancellationException;
+    }
+
+    /**
+     * Stops accepting work. Queries already running finish on their own threads.
+     */
+    public static void shutdown() {
+        cancelPending();
+        executor.shutdown();
+    }
+
+    private static <T> CompletableFuture<T> read(Supplier<T> query) {
+        return submit(query, true);
+    }
+
+    private static <T> CompletableFuture<T> write(Supplier<T> update) {
+        return submit(update, false);
+    }
+
+    private static <T> CompletableFuture<T> submit(Supplier<T> work, boolean interruptible) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.add(result);
+        Future<?> running = executor.submit(() -> {
+            try {
+                T value = work.get();
+                Platform.runLater(() -> result.complete(value));
+            } catch (Throwable t) {
+                Platform.runLater(() -> result.completeExceptionally(t));
+            }
+        });
+        result.whenComplete((value, error) -> {
+            pending.remove(result);
+            if (result.isCancelled()) {
+                logger.fine("Database call cancelled before its result was delivered.");
+                if (interruptible) {
+                    running.cancel(true);
+                }
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.models;
+
+import java.util.Map;
+
+/**
+ * The outcome of {@link DatabaseManager#reserveAndInsert(Guest, ReservationDetails, Money)}.
+ * @param outcome What happened.
+ * @param reservationId The new reservation's ID when booked, otherwise null.
+ * @param available The free rooms per type for the stay's dates when the rooms were no longer
+ *                  available, otherwise null.
+ */
+public record BookingResult(Outcome outcome, String reservationId, Map<RoomType, Integer> available) {
+
+    public enum Outcome {
+        /** The rooms were claimed and the reservation saved. */
+        BOOKED,
+        /** At least one requested room was taken for at least one night; nothing was saved. */
+        UNAVAILABLE,
+        /** The rooms were free but the reservation could not be saved; nothing was claimed. */
+        FAILED
+    }
+
+    static BookingResult booked(String reservationId) {
+        return new BookingResult(Outcome.BOOKED, reservationId, null);
+    }
+
+    static BookingResult unavailable(Map<RoomType, Integer> available) {
+        return new BookingResult(Outcome.UNAVAILABLE, null, available);
+    }
+
+    static BookingResult failed() {
+        return new BookingResult(Outcome.FAILED, null, null);
+    }
+
+    public boolean isBooked() {
+        return outcome == Outcome.BOOKED;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the SQLite connections used by {@link DatabaseManager} open for the life of the process.
+ * There is exactly one writer connection (SQLite only ever allows one writer at a time) and a
+ * small pool of reader connections. Callers lease a connection, use it and close the lease to
+ * hand it back; the physical connection is only closed by {@link #shutdown()}.
+ * Every connection is configured with the active {@link StorageProfile} as it is opened.
+ */
+public class ConnectionManager {
+
+    private static final Logger logger = Logger.getLogger(ConnectionManager.class.getName());
+
+    static final String DB_URL = "jdbc:sqlite:reservations.db";
+
+    private static final int READER_POOL_SIZE = 4;
+    private static final long LEASE_TIMEOUT_SECONDS = 10;
+    // Connections idle for longer than this are validated before being handed out again.
+    private static final long HEALTH_CHECK_IDLE_MILLIS = 30_000;
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+    // Prepared statements kept open per connection; the least recently used is closed beyond this.
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private static final ReentrantLock writerLock = new ReentrantLock();
+    private static final BlockingQueue<PooledConnection> readers = new ArrayBlockingQueue<>(READER_POOL_SIZE);
+    private static final List<PooledConnection> allReaders = new ArrayList<>();
+    private static PooledConnection writer;
+    private static StorageProfile profile = StorageProfile.KIOSK_SAFE;
+    private static volatile boolean started = false;
+    private static volatile boolean closed = false;
+
+    /**
+     * Opens the writer connection and the reader pool. Safe to call more than once;
+     * only the first call opens connections.
+     * @throws SQLException If a connection cannot be opened.
+     */
+    public static synchronized void start() throws SQLException {
+        if (started) {
+            return;
+        }
+        if (closed) {
+            throw new SQLException("Connection manager has been shut down.");
+        }
+        profile = StorageProfile.fromSystemProperty();
+        logger.info("Using storage profile " + profile.describe() + ".");
+        writer = new PooledConnection(openConnection(), true);
+        for (int i = 0; i < READER_POOL_SIZE; i++) {
+            PooledConnection reader = new PooledConnection(openConnection(), false);
+            allReaders.add(reader);
+            readers.add(reader);
+        }
+        started = true;
+        logger.info("Connection manager started with 1 writer and " + READER_POOL_SIZE + " reader connections.");
+    }
+
+    /**
+     * Leases a read-only connection from the pool, waiting if all readers are in use.
+     * The returned lease must be closed to give the connection back.
+     * @return A leased reader connection.
+     * @throws SQLException If the pool is closed or no reader became available in time.
+     */
+    public static PooledConnection leaseReader() throws SQLException {
+        ensureStarted();
+        PooledConnection lease;
+        try {
+            lease = readers.poll(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection.", e);
+        }
+        if (lease == null) {
+            throw new SQLException("Timed out waiting for a reader connection.");
+        }
+        try {
+            lease.checkHealth();
+        } catch (SQLException e) {
+            readers.offer(lease);
+            throw e;
+        }
+        lease.leased = true;
+        return lease;
+    }
+
+    /**
+     * Leases the single writer connection, waiting if another caller currently holds it.
+     * The returned lease must be closed to release the writer.
+     * @return The leased writer connection.
+     * @throws SQLException If the pool is closed or the writer did not become available in time.
+     */
+    public static PooledConnection leaseWriter() throws SQLException {
+        ensureStarted();
+        try {
+            if (!writerLock.tryLock(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("Timed out waiting for the writer connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection.", e);
+        }
+        try {
+            writer.checkHealth();
+        } catch (SQLException e) {
+            writerLock.unlock();
+            throw e;
+        }
+        writer.leased = true;
+        return writer;
+    }
+
+    /**
+     * Closes every pooled connection. Called once from {@code MainApplication.stop()}.
+     * Leases handed out after this point fail with an SQLException.
+     */
+    public static synchronized void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!started) {
+            return;
+        }
+        for (PooledConnection reader : allReaders) {
+            reader.closePhysical();
+        }
+        allReaders.clear();
+        readers.clear();
+        writerLock.lock();
+        try {
+            writer.closePhysical();
+        } finally {
+            writerLock.unlock();
+        }
+        logger.info("Connection manager shut down; all database connections closed.");
+    }
+
+    private static void ensureStarted() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection manager has been shut down.");
+        }
+        if (!started) {
+            start();
+        }
+    }
+
+    /**
+     * @return The storage profile applied to the pooled connections.
+     */
+    public static StorageProfile activeProfile() {
+        return profile;
+    }
+
+    private static Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(DB_URL);
+        try {
+            profile.apply(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    /**
+     * A leased connection. Closing the lease returns the connection to the pool
+     * instead of closing the underlying SQLite handle. Each connection also keeps its
+     * prepared statements, so a query is compiled once per connection rather than per call.
+     */
+    public static class PooledConnection implements AutoCloseable {
+        private Connection connection;
+        private final boolean writer;
+        private long lastReturned = System.currentTimeMillis();
+        private boolean leased;
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > STATEMENT_CACHE_SIZE) {
+                    closeStatement(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        private PooledConnection(Connection connection, boolean writer) {
+            this.connection = connection;
+            this.writer = writer;
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Returns a cached prepared statement for this connection, preparing it on first use.
+         * The statement belongs to the connection: callers must not close it, only the
+         * result sets they open from it. Parameters left over from the last use are cleared.
+         * @param sql The SQL to prepare.
+         * @return A ready-to-bind prepared statement.
+         * @throws SQLException If the statement cannot be prepared.
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement pstmt = statements.get(sql);
+            if (pstmt == null || pstmt.isClosed()) {
+                pstmt = connection.prepareStatement(sql);
+                statements.put(sql, pstmt);
+            } else {
+                pstmt.clearParameters();
+            }
+            return pstmt;
+        }
+
+        /**
+         * Validates a connection that has been idle for a while and transparently
+         * reopens it if SQLite reports it as unusable.
+         */
+        private void checkHealth() throws SQLException {
+            if (System.currentTimeMillis() - lastReturned < HEALTH_CHECK_IDLE_MILLIS && !connection.isClosed()) {
+                return;
+            }
+            if (!connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS)) {
+                logger.warning("Pooled " + (writer ? "writer" : "reader") + " connection failed its health check; reopening.");
+                closePhysical();
+                connection = openConnection();
+            }
+        }
+
+        /**
+         * Returns the connection to the pool. Any transaction left open by the caller
+         * is rolled back so the next lease starts from a clean state.
+         */
+        @Override
+        public void close() {
+            if (!leased) {
+                return;
+            }
+            leased = false;
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to reset pooled connection: " + e.getMessage(), e);
+            }
+            lastReturned = System.currentTimeMillis();
+            if (writer) {
+                writerLock.unlock();
+            } else {
+                readers.offer(this);
+            }
+        }
+
+        private void closePhysical() {
+            for (PreparedStatement pstmt : statements.values()) {
+                closeStatement(pstmt);
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Error closing pooled connection: " + e.getMessage(), e);
+            }
+        }
+
+        private static void closeStatement(PreparedStatement pstmt) {
+            try {
+                pstmt.close();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Error closing cached statement: " + e.getMessage(), e);
+            }
+        }
+    }
+}
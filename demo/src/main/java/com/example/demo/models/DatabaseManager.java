@@ -7,95 +7,160 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Manages the connection and operations for the SQLite database.
- * This class handles creating the database file and the reservation table,
- * and saving, searching, and updating guest and reservation data.
+ * Manages the operations for the SQLite database.
+ * This class handles saving, searching, and updating guest and reservation data.
+ * Connections come from {@link ConnectionManager} and the schema is owned by {@link SchemaMigrator}.
+ * Writes go through {@link WriteQueue}, which commits concurrent writes together in one transaction.
+ * Lookups by ID and phone number are served from {@link ReservationCache} when possible; every
+ * committed write invalidates the entries it affects and updates {@link RoomInventory}.
  */
 public class DatabaseManager {
 
     private static final Logger logger = Logger.getLogger(DatabaseManager.class.getName());
-    private static final String DB_URL = "jdbc:sqlite:reservations.db";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    // SQL used by the methods below. Lookups are listed in indexedQueries() so their plans can be checked.
+    private static final String INSERT_RESERVATION_SQL = "INSERT INTO reservations(" +
+            "full_name, phone_number, email, address, province, city, postal_code, " +
+            "id_proof_type, id_proof_number, check_in_day, check_out_day, " +
+            "adults, children, single_rooms, double_rooms, deluxe_rooms, penthouse_rooms, " +
+            "total_price_cents, status_code, room_number, room_type) " +
+            "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_RESERVATION_SQL = "DELETE FROM reservations WHERE reservation_id = ?";
+
+    // List screens read ReservationSummary projections; only SELECT_BY_ID_SQL reads every column.
+    private static final String SEARCH_BY_PHONE_SQL = "SELECT " + ReservationSummary.COLUMNS + " " +
+            "FROM reservations WHERE reservation_id IN (" + PhoneIndex.MATCHING_IDS_SQL + ") " +
+            "ORDER BY reservation_id";
+
+    private static final String SELECT_ALL_SQL = "SELECT " + ReservationSummary.COLUMNS + " " +
+            "FROM reservations ORDER BY reservation_id";
+
+    // Keyset pages: rows after a given reservation ID, in ID order, one row more than the page size.
+    // The phone search walks reservations in ID order and tests each one, so it stops at the page's last row
+    // instead of collecting every match first.
+    private static final String SEARCH_BY_PHONE_PAGE_SQL = "SELECT " + ReservationSummary.COLUMNS + " " +
+            "FROM reservations WHERE reservation_id > ? AND " + PhoneIndex.MATCHES_RESERVATION_SQL + " " +
+            "ORDER BY reservation_id LIMIT ?";
+
+    private static final String SELECT_ALL_PAGE_SQL = "SELECT " + ReservationSummary.COLUMNS + " " +
+            "FROM reservations WHERE reservation_id > ? ORDER BY reservation_id LIMIT ?";
+
+    private static final String SEARCH_GUESTS_SQL = "SELECT " + ReservationSummary.columns("r") + " " +
+            "FROM " + GuestSearchIndex.TABLE + " JOIN reservations r ON r.reservation_id = " + GuestSearchIndex.TABLE + ".rowid " +
+            "WHERE " + GuestSearchIndex.TABLE + " MATCH ? ORDER BY " + GuestSearchIndex.TABLE + ".rank LIMIT ?";
+
+    private static final String SELECT_BY_ID_SQL = "SELECT " + ReservationRowMapper.COLUMNS + " " +
+            "FROM reservations WHERE reservation_id = ?";
+
+    private static final String UPDATE_RESERVATION_SQL = "UPDATE reservations SET " +
+            "full_name = ?, phone_number = ?, email = ?, address = ?, province = ?, city = ?, postal_code = ?, " +
+            "id_proof_type = ?, id_proof_number = ?, check_in_day = ?, check_out_day = ?, " +
+            "adults = ?, children = ?, single_rooms = ?, double_rooms = ?, deluxe_rooms = ?, penthouse_rooms = ?, " +
+            "total_price_cents = ?, status_code = ?, room_number = ?, room_type = ? " +
+            "WHERE reservation_id = ?";
+
+    private static final String SELECT_UPCOMING_SQL = "SELECT " + ReservationSummary.COLUMNS + " " +
+            "FROM reservations WHERE check_in_day BETWEEN ? AND ?";
+
+    private static final String CHECKOUT_SQL = "UPDATE reservations SET status_code = ?, total_price_cents = ? WHERE reservation_id = ?";
+
+    private static final String LATEST_ID_BY_PHONE_SQL = "SELECT reservation_id FROM reservations WHERE phone_number = ? ORDER BY reservation_id DESC LIMIT 1";
+
+    private static final String INSERT_FEEDBACK_SQL = "INSERT INTO feedback(reservation_id, rating, comment, submission_date) VALUES(?, ?, ?, ?)";
+
     /**
-     * Initializes the database connection and ensures the reservation and feedback tables exist.
-     * Call this method before performing any database operations.
+     * Ensures the database schema is up to date. The migrations run once at startup from
+     * {@code MainApplication}; every later call returns immediately on the fast path.
      */
     public static void initialize() {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
-            if (conn != null) {
-                DatabaseMetaData meta = conn.getMetaData();
-                logger.info("The driver name is " + meta.getDriverName());
-                createReservationTable(conn);
-                createFeedbackTable(conn);
-            }
+        if (SchemaMigrator.isInitialized()) {
+            return;
+        }
+        try {
+            SchemaMigrator.migrate();
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Database initialization error: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Creates the 'reservations' table if it does not already exist.
-     * @param conn The database connection.
-     * @throws SQLException If a database access error occurs.
+     * Returns every lookup this class runs that must be served by an index, keyed by a
+     * readable name. {@link QueryPlanVerifier} checks each of these at startup.
+     * @return An ordered map of query name to SQL.
      */
-    private static void createReservationTable(Connection conn) throws SQLException {
-        String sql = "CREATE TABLE IF NOT EXISTS reservations (" +
-                "reservation_id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "full_name TEXT NOT NULL," +
-                "phone_number TEXT NOT NULL," +
-                "email TEXT NOT NULL," +
-                "address TEXT NOT NULL," +
-                "province TEXT NOT NULL," +
-                "city TEXT NOT NULL," +
-                "postal_code TEXT NOT NULL," +
-                "id_proof_type TEXT NOT NULL," +
-                "id_proof_number TEXT NOT NULL," +
-                "check_in_date TEXT NOT NULL," +
-                "check_out_date TEXT NOT NULL," +
-                "adults INTEGER NOT NULL," +
-                "children INTEGER NOT NULL," +
-                "single_rooms INTEGER NOT NULL," +
-                "double_rooms INTEGER NOT NULL," +
-                "deluxe_rooms INTEGER NOT NULL," +
-                "penthouse_rooms INTEGER NOT NULL," +
-                "total_price REAL NOT NULL," +
-                "status TEXT NOT NULL," +
-                "room_number TEXT," +
-                "room_type TEXT" +
-                ");";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-            logger.info("Reservations table created or already exists.");
-        }
+    static Map<String, String> indexedQueries() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        queries.put("searchReservationsByPhoneNumber", SEARCH_BY_PHONE_SQL);
+        queries.put("searchReservations", SEARCH_BY_PHONE_PAGE_SQL);
+        queries.put("searchReservations (all)", SELECT_ALL_PAGE_SQL);
+        queries.put("searchGuests", SEARCH_GUESTS_SQL);
+        queries.put("getReservationById", SELECT_BY_ID_SQL);
+        queries.put("getReservationsForNext24Hours", SELECT_UPCOMING_SQL);
+        queries.put("getReservationIdByPhoneNumber", LATEST_ID_BY_PHONE_SQL);
+        queries.put("updateReservation", UPDATE_RESERVATION_SQL);
+        queries.put("deleteReservation", DELETE_RESERVATION_SQL);
+        queries.put("saveCheckoutDetails", CHECKOUT_SQL);
+        queries.put("RoomInventory.rebuild", RoomInventory.HOLDING_ROOMS_SQL);
+        queries.put("RoomAssigner.assign", RoomAssigner.STAYS_SQL);
+        queries.put("RoomAssigner.assign (current rooms)", RoomAssigner.CURRENT_ROOMS_SQL);
+        queries.put("RoomAssigner.findConflicts", RoomAssigner.CONFLICTS_SQL);
+        return queries;
     }
 
     /**
-     * Creates the 'feedback' table if it does not exist.
-     * @param conn The database connection.
-     * @throws SQLException If a database access error occurs.
+     * Books a new reservation only if every room it asks for is free on every night of the stay.
+     * The rooms are claimed in {@link RoomInventory} first, atomically across all nights, and the
+     * reservation is then saved; if saving fails the claim is handed back. Concurrent bookings for
+     * the last room of a night therefore cannot both succeed.
+     * <p>
+     * If the details carry a {@link RoomHolds} hold for exactly these rooms, the hold's claim is
+     * taken over instead of claiming again. A hold that has expired or no longer matches the
+     * selection is given back and the rooms are claimed as usual.
+     *
+     * @param guest The Guest object to save.
+     * @param details The ReservationDetails object to save.
+     * @param finalEstimatedTotal The final estimated total price.
+     * @return BOOKED with the new reservation ID, UNAVAILABLE with the current availability, or FAILED.
      */
-    private static void createFeedbackTable(Connection conn) throws SQLException {
-        String sql = "CREATE TABLE IF NOT EXISTS feedback (" +
-                "feedback_id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "reservation_id INTEGER NOT NULL," +
-                "rating INTEGER NOT NULL," +
-                "comment TEXT," +
-                "submission_date TEXT NOT NULL," +
-                "FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id)" +
-                ");";
-        try (Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
-            logger.info("Feedback table created or already exists.");
+    public static BookingResult reserveAndInsert(Guest guest, ReservationDetails details, Money finalEstimatedTotal) {
+        RoomInventory.Stay stay = RoomInventory.stayOf(details);
+        RoomInventory.Stay held = RoomHolds.claim(details.getHoldId());
+        details.setHoldId(null);
+        boolean alreadyClaimed = stay != null && stay.sameAs(held);
+        if (!alreadyClaimed) {
+            RoomInventory.release(held);
+        }
+        if (stay != null && !alreadyClaimed && !RoomInventory.tryReserve(stay)) {
+            logger.info("Booking refused, rooms no longer available from " + details.getCheckInDate()
+                    + " to " + details.getCheckOutDate() + ".");
+            return BookingResult.unavailable(RoomInventory.availability(details.getCheckInDate(), details.getCheckOutDate()));
+        }
+        try {
+            String generatedId = WriteQueue.execute(conn -> insertWithPhoneIndex(conn, guest, details, finalEstimatedTotal));
+            if (generatedId != null) {
+                ReservationCache.invalidate(Integer.parseInt(generatedId), guest.getPhoneNumber());
+                RoomAssigner.reoptimizeFrom(details.getCheckInDate().toEpochDay());
+                logger.info("Reservation successfully booked with ID: " + generatedId);
+                return BookingResult.booked(generatedId);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error saving reservation: " + e.getMessage(), e);
         }
+        RoomInventory.release(stay);
+        return BookingResult.failed();
     }
 
     /**
-     * Inserts a new reservation and guest record into the database.
+     * Inserts a new reservation and guest record into the database without checking room
+     * availability; the rooms are added to the inventory as booked regardless.
+     * Kiosk bookings use {@link #reserveAndInsert(Guest, ReservationDetails, Money)} instead.
      * Returns the generated reservation ID.
      *
      * @param guest The Guest object to save.
@@ -103,17 +168,35 @@ public class DatabaseManager {
      * @param finalEstimatedTotal The final estimated total price.
      * @return The generated reservation ID as a String, or null if insertion fails.
      */
-    public static String insertReservation(Guest guest, ReservationDetails details, double finalEstimatedTotal) {
-        String sql = "INSERT INTO reservations(" +
-                "full_name, phone_number, email, address, province, city, postal_code, " +
-                "id_proof_type, id_proof_number, check_in_date, check_out_date, " +
-                "adults, children, single_rooms, double_rooms, deluxe_rooms, penthouse_rooms, " +
-                "total_price, status, room_number, room_type) " +
-                "VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    public static String insertReservation(Guest guest, ReservationDetails details, Money finalEstimatedTotal) {
+        try {
+            String generatedId = WriteQueue.execute(conn -> insertWithPhoneIndex(conn, guest, details, finalEstimatedTotal));
+            if (generatedId != null) {
+                ReservationCache.invalidate(Integer.parseInt(generatedId), guest.getPhoneNumber());
+                RoomInventory.reserve(RoomInventory.stayOf(details));
+                RoomAssigner.reoptimizeFrom(details.getCheckInDate().toEpochDay());
+                logger.info("Reservation successfully saved with ID: " + generatedId);
+                return generatedId;
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error saving reservation: " + e.getMessage(), e);
+        }
+        return null;
+    }
 
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    // The reservation and its phone index rows are written in the same transaction.
+    private static String insertWithPhoneIndex(Connection conn, Guest guest, ReservationDetails details,
+                                               Money finalEstimatedTotal) throws SQLException {
+        String id = insertReservationRow(conn, guest, details, finalEstimatedTotal);
+        if (id != null) {
+            PhoneIndex.index(conn, Integer.parseInt(id), guest.getPhoneNumber());
+        }
+        return id;
+    }
 
+    private static String insertReservationRow(Connection conn, Guest guest, ReservationDetails details,
+                                               Money finalEstimatedTotal) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_RESERVATION_SQL, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, guest.getFullName());
             pstmt.setString(2, guest.getPhoneNumber());
             pstmt.setString(3, guest.getEmail());
@@ -123,16 +206,16 @@ public class DatabaseManager {
             pstmt.setString(7, guest.getPostalCode());
             pstmt.setString(8, guest.getIdProofType());
             pstmt.setString(9, guest.getIdProofNumber());
-            pstmt.setString(10, details.getCheckInDate().format(DATE_FORMATTER));
-            pstmt.setString(11, details.getCheckOutDate().format(DATE_FORMATTER));
+            pstmt.setLong(10, details.getCheckInDate().toEpochDay());
+            pstmt.setLong(11, details.getCheckOutDate().toEpochDay());
             pstmt.setInt(12, details.getNumberOfAdults());
             pstmt.setInt(13, details.getNumberOfChildren());
             pstmt.setInt(14, details.getSingleRooms());
             pstmt.setInt(15, details.getDoubleRooms());
             pstmt.setInt(16, details.getDeluxeRooms());
             pstmt.setInt(17, details.getPenthouses());
-            pstmt.setDouble(18, finalEstimatedTotal);
-            pstmt.setString(19, details.getStatus());
+            pstmt.setLong(18, finalEstimatedTotal.cents());
+            pstmt.setInt(19, ReservationStatus.codeOf(details.getStatus()));
             pstmt.setString(20, details.getRoomNumber());
             pstmt.setString(21, details.getRoomType());
 
@@ -141,14 +224,10 @@ public class DatabaseManager {
             if (affectedRows > 0) {
                 try (ResultSet rs = pstmt.getGeneratedKeys()) {
                     if (rs.next()) {
-                        String generatedId = String.valueOf(rs.getInt(1));
-                        logger.info("Reservation successfully saved with ID: " + generatedId);
-                        return generatedId;
+                        return String.valueOf(rs.getInt(1));
                     }
                 }
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error saving reservation: " + e.getMessage(), e);
         }
         return null;
     }
@@ -159,14 +238,27 @@ public class DatabaseManager {
      * @return true if the reservation was deleted successfully, false otherwise.
      */
     public static boolean deleteReservation(String reservationId) {
-        String sql = "DELETE FROM reservations WHERE reservation_id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, Integer.parseInt(reservationId));
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
+        try {
+            int id = Integer.parseInt(reservationId);
+            WriteOutcome outcome = WriteQueue.execute(conn -> {
+                RoomInventory.Stay previousStay = RoomInventory.readStay(conn, id);
+                int deleted;
+                try (PreparedStatement pstmt = conn.prepareStatement(DELETE_RESERVATION_SQL)) {
+                    pstmt.setInt(1, id);
+                    deleted = pstmt.executeUpdate();
+                }
+                if (deleted > 0) {
+                    PhoneIndex.remove(conn, id);
+                    RoomAssigner.remove(conn, id);
+                }
+                return new WriteOutcome(deleted, previousStay);
+            });
+            if (outcome.affectedRows() > 0) {
+                ReservationCache.invalidate(id, null);
+                RoomInventory.release(outcome.previousStay());
+                if (outcome.previousStay() != null) {
+                    RoomAssigner.reoptimizeFrom(outcome.previousStay().checkInDay());
+                }
                 logger.info("Reservation with ID " + reservationId + " successfully deleted from database.");
                 return true;
             } else {
@@ -183,57 +275,113 @@ public class DatabaseManager {
     }
 
     /**
-     * Searches for reservations by guest phone number.
-     * @param phoneNumber The phone number to search for.
-     * @return A list of ReservationDisplay objects matching the phone number.
+     * Searches for reservations whose phone number contains the given digits, ignoring any
+     * formatting in either the stored number or the search text. A blank search lists every
+     * reservation; a search containing no digits matches nothing.
+     * @param phoneNumber The full or partial phone number to search for.
+     * @return Summaries of the reservations matching the phone number.
      */
-    public static List<ReservationDisplay> searchReservationsByPhoneNumber(String phoneNumber) {
-        List<ReservationDisplay> results = new ArrayList<>();
-        String sql = "SELECT reservation_id, full_name, phone_number, check_in_date, " +
-                "email, address, province, city, postal_code, " +
-                "id_proof_type, id_proof_number, check_out_date, adults, children, single_rooms, double_rooms, " +
-                "deluxe_rooms, penthouse_rooms, total_price, status, room_number, room_type " +
-                "FROM reservations WHERE phone_number LIKE ?";
+    public static List<ReservationSummary> searchReservationsByPhoneNumber(String phoneNumber) {
+        String digits = PhoneIndex.normalize(phoneNumber);
+        boolean listAll = phoneNumber == null || phoneNumber.isBlank();
+        if (digits.isEmpty() && !listAll) {
+            return new ArrayList<>();
+        }
 
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        String cacheKey = listAll ? "" : digits;
+        List<ReservationSummary> cached = ReservationCache.getPhoneSearch(cacheKey);
+        if (cached != null) {
+            return new ArrayList<>(cached);
+        }
 
-            pstmt.setString(1, "%" + phoneNumber + "%");
+        List<ReservationSummary> results = new ArrayList<>();
+        String sql = listAll ? SELECT_ALL_SQL : SEARCH_BY_PHONE_SQL;
+        long generation = ReservationCache.generation();
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            PreparedStatement pstmt = lease.prepare(sql);
 
-            ResultSet rs = pstmt.executeQuery();
+            if (!listAll) {
+                pstmt.setString(1, PhoneIndex.lowerBound(digits));
+                pstmt.setString(2, PhoneIndex.upperBound(digits));
+            }
 
-            while (rs.next()) {
-                Guest guest = new Guest(
-                        rs.getString("full_name"),
-                        rs.getString("phone_number"),
-                        rs.getString("email"),
-                        rs.getString("address"),
-                        rs.getString("province"),
-                        rs.getString("city"),
-                        rs.getString("postal_code"),
-                        rs.getString("id_proof_type"),
-                        rs.getString("id_proof_number")
-                );
-
-                ReservationDetails details = new ReservationDetails();
-                details.setReservationId(String.valueOf(rs.getInt("reservation_id")));
-                details.setCheckInDate(LocalDate.parse(rs.getString("check_in_date"), DATE_FORMATTER));
-                details.setCheckOutDate(LocalDate.parse(rs.getString("check_out_date"), DATE_FORMATTER));
-                details.setNumberOfAdults(rs.getInt("adults"));
-                details.setNumberOfChildren(rs.getInt("children"));
-                details.setSingleRooms(rs.getInt("single_rooms"));
-                details.setDoubleRooms(rs.getInt("double_rooms"));
-                details.setDeluxeRooms(rs.getInt("deluxe_rooms"));
-                details.setPenthouses(rs.getInt("penthouse_rooms"));
-                details.setEstimatedPrice(rs.getDouble("total_price"));
-                details.setStatus(rs.getString("status"));
-                details.setRoomNumber(rs.getString("room_number"));
-                details.setRoomType(rs.getString("room_type"));
-
-                results.add(new ReservationDisplay(guest, details));
+            readSummaries(pstmt, results);
+            ReservationCache.putPhoneSearch(generation, cacheKey, results);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error searching reservations: " + e.getMessage(), e);
+        }
+        return results;
+    }
+
+    /**
+     * Returns one page of the reservations whose phone number contains the given digits, with
+     * the same matching rules as {@link #searchReservationsByPhoneNumber(String)}. Pages are
+     * keyed on the reservation ID rather than an offset, so rows committed meanwhile never shift
+     * later pages. Reservations after {@code afterId} are tested against the phone index one at a
+     * time until the page is full, so a page holds only its own rows in memory however many
+     * reservations match, and never reads matches beyond it.
+     * @param phoneNumber The full or partial phone number to search for; blank lists every reservation.
+     * @param afterId Only reservations with a greater ID are returned; 0 for the first page.
+     * @param pageSize The maximum number of reservations on the page.
+     * @return The page, which is empty if nothing more matches or the search fails.
+     */
+    public static ReservationPage searchReservations(String phoneNumber, int afterId, int pageSize) {
+        String digits = PhoneIndex.normalize(phoneNumber);
+        boolean listAll = phoneNumber == null || phoneNumber.isBlank();
+        if (digits.isEmpty() && !listAll) {
+            return ReservationPage.of(new ArrayList<>());
+        }
+
+        List<ReservationSummary> rows = new ArrayList<>(pageSize + 1);
+        String sql = listAll ? SELECT_ALL_PAGE_SQL : SEARCH_BY_PHONE_PAGE_SQL;
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            PreparedStatement pstmt = lease.prepare(sql);
+
+            int parameter = 1;
+            pstmt.setInt(parameter++, afterId);
+            if (!listAll) {
+                pstmt.setString(parameter++, PhoneIndex.lowerBound(digits));
+                pstmt.setString(parameter++, PhoneIndex.upperBound(digits));
             }
+            // One extra row tells whether another page follows without a COUNT query.
+            pstmt.setInt(parameter, pageSize + 1);
+
+            readSummaries(pstmt, rows);
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error searching reservations: " + e.getMessage(), e);
+            rows.clear();
+        }
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows.remove(pageSize);
+        }
+        return new ReservationPage(rows, hasMore);
+    }
+
+    /**
+     * Full-text search over guest name, email, phone number and ID proof number.
+     * Every word in the query must match the start of a word in one of those fields,
+     * so "jan do" finds "Jane Doe" and "a123" finds ID proof "A1234567".
+     * @param query The free-text search entered by the admin.
+     * @param limit The maximum number of results to return.
+     * @return Summaries of the matching reservations, best match first.
+     */
+    public static List<ReservationSummary> searchGuests(String query, int limit) {
+        List<ReservationSummary> results = new ArrayList<>();
+        String matchExpression = GuestSearchIndex.toMatchExpression(query);
+        if (matchExpression.isEmpty()) {
+            return results;
+        }
+
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            PreparedStatement pstmt = lease.prepare(SEARCH_GUESTS_SQL);
+
+            pstmt.setString(1, matchExpression);
+            pstmt.setInt(2, limit);
+
+            readSummaries(pstmt, results);
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error searching guests: " + e.getMessage(), e);
         }
         return results;
     }
@@ -244,51 +392,25 @@ public class DatabaseManager {
      * @return A Map containing the Guest and ReservationDetails, or null if not found.
      */
     public static Map<String, Object> getReservationById(String reservationId) {
-        String sql = "SELECT reservation_id, full_name, phone_number, check_in_date, " +
-                "email, address, province, city, postal_code, " +
-                "id_proof_type, id_proof_number, check_out_date, adults, children, single_rooms, double_rooms, " +
-                "deluxe_rooms, penthouse_rooms, total_price, status, room_number, room_type " +
-                "FROM reservations WHERE reservation_id = ?";
-
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, Integer.parseInt(reservationId));
-
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                Guest guest = new Guest(
-                        rs.getString("full_name"),
-                        rs.getString("phone_number"),
-                        rs.getString("email"),
-                        rs.getString("address"),
-                        rs.getString("province"),
-                        rs.getString("city"),
-                        rs.getString("postal_code"),
-                        rs.getString("id_proof_type"),
-                        rs.getString("id_proof_number")
-                );
-
-                ReservationDetails details = new ReservationDetails();
-                details.setReservationId(String.valueOf(rs.getInt("reservation_id")));
-                details.setCheckInDate(LocalDate.parse(rs.getString("check_in_date"), DATE_FORMATTER));
-                details.setCheckOutDate(LocalDate.parse(rs.getString("check_out_date"), DATE_FORMATTER));
-                details.setNumberOfAdults(rs.getInt("adults"));
-                details.setNumberOfChildren(rs.getInt("children"));
-                details.setSingleRooms(rs.getInt("single_rooms"));
-                details.setDoubleRooms(rs.getInt("double_rooms"));
-                details.setDeluxeRooms(rs.getInt("deluxe_rooms"));
-                details.setPenthouses(rs.getInt("penthouse_rooms"));
-                details.setEstimatedPrice(rs.getDouble("total_price"));
-                details.setStatus(rs.getString("status"));
-                details.setRoomNumber(rs.getString("room_number"));
-                details.setRoomType(rs.getString("room_type"));
-
-                Map<String, Object> result = new HashMap<>();
-                result.put("guest", guest);
-                result.put("reservationDetails", details);
-                return result;
+        try {
+            int id = Integer.parseInt(reservationId);
+            ReservationDisplay cached = ReservationCache.getById(id);
+            if (cached != null) {
+                return toResultMap(cached);
+            }
+
+            long generation = ReservationCache.generation();
+            try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+                PreparedStatement pstmt = lease.prepare(SELECT_BY_ID_SQL);
+
+                pstmt.setInt(1, id);
+
+                List<ReservationDisplay> rows = new ArrayList<>(1);
+                readReservations(SELECT_BY_ID_SQL, pstmt, rows);
+                if (!rows.isEmpty()) {
+                    ReservationCache.putReservations(generation, rows);
+                    return toResultMap(rows.get(0));
+                }
             }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error retrieving reservation by ID: " + e.getMessage(), e);
@@ -298,6 +420,68 @@ public class DatabaseManager {
         return null;
     }
 
+    /**
+     * Loads the reservation a billing report is generated for: the first reservation whose
+     * phone number contains the given digits. The lookup and the full read run in one read
+     * transaction, so under WAL they see the same snapshot even while bookings keep committing.
+     * @param phoneNumber The full or partial phone number entered for the report.
+     * @return A Map containing the Guest and ReservationDetails, or null if nothing matches.
+     * @throws SQLException If the reservation cannot be read.
+     */
+    public static Map<String, Object> getReservationForReport(String phoneNumber) throws SQLException {
+        String digits = PhoneIndex.normalize(phoneNumber);
+        if (digits.isEmpty()) {
+            return null;
+        }
+        // Cached entries always reflect committed data, so a cached search and row are as consistent as a snapshot.
+        List<ReservationSummary> cachedMatches = ReservationCache.getPhoneSearch(digits);
+        if (cachedMatches != null) {
+            if (cachedMatches.isEmpty()) {
+                return null;
+            }
+            ReservationDisplay cached = ReservationCache.getById(cachedMatches.get(0).reservationId());
+            if (cached != null) {
+                return toResultMap(cached);
+            }
+        }
+
+        long generation = ReservationCache.generation();
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            Connection conn = lease.getConnection();
+            conn.setAutoCommit(false);
+
+            PreparedStatement search = lease.prepare(SEARCH_BY_PHONE_SQL);
+            search.setString(1, PhoneIndex.lowerBound(digits));
+            search.setString(2, PhoneIndex.upperBound(digits));
+            List<ReservationSummary> matches = new ArrayList<>();
+            readSummaries(search, matches);
+            if (matches.isEmpty()) {
+                conn.commit();
+                ReservationCache.putPhoneSearch(generation, digits, matches);
+                return null;
+            }
+
+            PreparedStatement byId = lease.prepare(SELECT_BY_ID_SQL);
+            byId.setInt(1, matches.get(0).reservationId());
+            List<ReservationDisplay> rows = new ArrayList<>(1);
+            readReservations(SELECT_BY_ID_SQL, byId, rows);
+            conn.commit();
+            ReservationCache.putPhoneSearch(generation, digits, matches);
+            if (rows.isEmpty()) {
+                return null;
+            }
+            ReservationCache.putReservations(generation, rows);
+            return toResultMap(rows.get(0));
+        }
+    }
+
+    private static Map<String, Object> toResultMap(ReservationDisplay row) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("guest", row.getGuest());
+        result.put("reservationDetails", row.getDetails());
+        return result;
+    }
+
     /**
      * Updates an existing reservation record in the database.
      * @param guest The updated Guest object.
@@ -305,16 +489,41 @@ public class DatabaseManager {
      * @return true if the update was successful, false otherwise.
      */
     public static boolean updateReservation(Guest guest, ReservationDetails details) {
-        String sql = "UPDATE reservations SET " +
-                "full_name = ?, phone_number = ?, email = ?, address = ?, province = ?, city = ?, postal_code = ?, " +
-                "id_proof_type = ?, id_proof_number = ?, check_in_date = ?, check_out_date = ?, " +
-                "adults = ?, children = ?, single_rooms = ?, double_rooms = ?, deluxe_rooms = ?, penthouse_rooms = ?, " +
-                "total_price = ?, status = ?, room_number = ?, room_type = ? " +
-                "WHERE reservation_id = ?";
-
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            int id = Integer.parseInt(details.getReservationId());
+            WriteOutcome outcome = WriteQueue.execute(conn -> {
+                RoomInventory.Stay previousStay = RoomInventory.readStay(conn, id);
+                // Compares the typed room number with the stored one, so it runs before the row is overwritten.
+                RoomAssigner.applyManualRooms(conn, id, details);
+                int updated = updateReservationRow(conn, id, guest, details);
+                if (updated > 0) {
+                    PhoneIndex.reindex(conn, id, guest.getPhoneNumber());
+                }
+                return new WriteOutcome(updated, previousStay);
+            });
+            if (outcome.affectedRows() > 0) {
+                ReservationCache.invalidate(id, guest.getPhoneNumber());
+                RoomInventory.release(outcome.previousStay());
+                RoomInventory.reserve(RoomInventory.stayOf(details));
+                long firstNight = details.getCheckInDate().toEpochDay();
+                if (outcome.previousStay() != null) {
+                    firstNight = Math.min(firstNight, outcome.previousStay().checkInDay());
+                }
+                RoomAssigner.reoptimizeFrom(firstNight);
+                logger.info("Reservation ID " + details.getReservationId() + " successfully updated.");
+                return true;
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error updating reservation: " + e.getMessage(), e);
+        } catch (NumberFormatException e) {
+            logger.log(Level.SEVERE, "Invalid reservation ID format during update: " + e.getMessage(), e);
+        }
+        return false;
+    }
 
+    private static int updateReservationRow(Connection conn, int id, Guest guest, ReservationDetails details)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_RESERVATION_SQL)) {
             pstmt.setString(1, guest.getFullName());
             pstmt.setString(2, guest.getPhoneNumber());
             pstmt.setString(3, guest.getEmail());
@@ -325,109 +534,112 @@ public class DatabaseManager {
             pstmt.setString(8, guest.getIdProofType());
             pstmt.setString(9, guest.getIdProofNumber());
 
-            pstmt.setString(10, details.getCheckInDate().format(DATE_FORMATTER));
-            pstmt.setString(11, details.getCheckOutDate().format(DATE_FORMATTER));
+            pstmt.setLong(10, details.getCheckInDate().toEpochDay());
+            pstmt.setLong(11, details.getCheckOutDate().toEpochDay());
             pstmt.setInt(12, details.getNumberOfAdults());
             pstmt.setInt(13, details.getNumberOfChildren());
             pstmt.setInt(14, details.getSingleRooms());
             pstmt.setInt(15, details.getDoubleRooms());
             pstmt.setInt(16, details.getDeluxeRooms());
             pstmt.setInt(17, details.getPenthouses());
-            pstmt.setDouble(18, details.getEstimatedPrice());
-            pstmt.setString(19, details.getStatus());
+            pstmt.setLong(18, details.getEstimatedPrice().cents());
+            pstmt.setInt(19, ReservationStatus.codeOf(details.getStatus()));
             pstmt.setString(20, details.getRoomNumber());
             pstmt.setString(21, details.getRoomType());
-            pstmt.setInt(22, Integer.parseInt(details.getReservationId()));
+            pstmt.setInt(22, id);
 
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                logger.info("Reservation ID " + details.getReservationId() + " successfully updated.");
-                return true;
-            }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error updating reservation: " + e.getMessage(), e);
-        } catch (NumberFormatException e) {
-            logger.log(Level.SEVERE, "Invalid reservation ID format during update: " + e.getMessage(), e);
+            return pstmt.executeUpdate();
         }
-        return false;
     }
 
     /**
      * Retrieves reservations with a check-in date of today or tomorrow.
-     * @return A list of ReservationDisplay objects for upcoming reservations.
+     * @return Summaries of the upcoming reservations.
      */
-    public static List<ReservationDisplay> getReservationsForNext24Hours() {
-        List<ReservationDisplay> results = new ArrayList<>();
+    public static List<ReservationSummary> getReservationsForNext24Hours() {
+        List<ReservationSummary> results = new ArrayList<>();
         LocalDate today = LocalDate.now();
         LocalDate tomorrow = today.plusDays(1);
 
-        String sql = "SELECT reservation_id, full_name, phone_number, check_in_date, " +
-                "email, address, province, city, postal_code, " +
-                "id_proof_type, id_proof_number, check_out_date, adults, children, single_rooms, double_rooms, " +
-                "deluxe_rooms, penthouse_rooms, total_price, status, room_number, room_type " +
-                "FROM reservations WHERE check_in_date = ? OR check_in_date = ?";
-
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, today.format(DATE_FORMATTER));
-            pstmt.setString(2, tomorrow.format(DATE_FORMATTER));
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            PreparedStatement pstmt = lease.prepare(SELECT_UPCOMING_SQL);
 
-            ResultSet rs = pstmt.executeQuery();
+            pstmt.setLong(1, today.toEpochDay());
+            pstmt.setLong(2, tomorrow.toEpochDay());
 
-            while (rs.next()) {
-                Guest guest = new Guest(
-                        rs.getString("full_name"),
-                        rs.getString("phone_number"),
-                        rs.getString("email"),
-                        rs.getString("address"),
-                        rs.getString("province"),
-                        rs.getString("city"),
-                        rs.getString("postal_code"),
-                        rs.getString("id_proof_type"),
-                        rs.getString("id_proof_number")
-                );
-
-                ReservationDetails details = new ReservationDetails();
-                details.setReservationId(String.valueOf(rs.getInt("reservation_id")));
-                details.setCheckInDate(LocalDate.parse(rs.getString("check_in_date"), DATE_FORMATTER));
-                details.setCheckOutDate(LocalDate.parse(rs.getString("check_out_date"), DATE_FORMATTER));
-                details.setNumberOfAdults(rs.getInt("adults"));
-                details.setNumberOfChildren(rs.getInt("children"));
-                details.setSingleRooms(rs.getInt("single_rooms"));
-                details.setDoubleRooms(rs.getInt("double_rooms"));
-                details.setDeluxeRooms(rs.getInt("deluxe_rooms"));
-                details.setPenthouses(rs.getInt("penthouse_rooms"));
-                details.setEstimatedPrice(rs.getDouble("total_price"));
-                details.setStatus(rs.getString("status"));
-                details.setRoomNumber(rs.getString("room_number"));
-                details.setRoomType(rs.getString("room_type"));
-
-                results.add(new ReservationDisplay(guest, details));
-            }
+            readSummaries(pstmt, results);
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error retrieving upcoming reservations: " + e.getMessage(), e);
         }
         return results;
     }
 
+    /**
+     * What a write reports back from the writer thread: the rows it changed and the stay the
+     * reservation occupied before the write, so the room inventory can be adjusted after commit.
+     */
+    private record WriteOutcome(int affectedRows, RoomInventory.Stay previousStay) {
+    }
+
+    /**
+     * Runs a summary query on a cached statement and appends one ReservationSummary per row.
+     * @param pstmt The prepared statement with its parameters bound; it must select ReservationSummary.COLUMNS.
+     * @param results The list to append to.
+     * @throws SQLException If a database access error occurs.
+     */
+    private static void readSummaries(PreparedStatement pstmt, List<ReservationSummary> results) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                results.add(ReservationSummary.fromRow(rs));
+            }
+        }
+    }
+
+    /**
+     * Runs a reservation query on a cached statement and appends one ReservationDisplay per row.
+     * @param sql The statement's SQL, which keys the row mapper's resolved column positions.
+     * @param pstmt The prepared statement with its parameters bound.
+     * @param results The list to append to.
+     * @throws SQLException If a database access error occurs.
+     */
+    private static void readReservations(String sql, PreparedStatement pstmt, List<ReservationDisplay> results)
+            throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            ReservationRowMapper mapper = ReservationRowMapper.forQuery(sql, rs);
+            while (rs.next()) {
+                results.add(mapper.map(rs));
+            }
+        }
+    }
+
     /**
      * Updates a reservation's status to 'checked-out' and saves the final price.
      * @param reservationId The ID of the reservation to update.
      * @param finalPrice The final price to be stored.
      * @return true if the update was successful, false otherwise.
      */
-    public static boolean saveCheckoutDetails(String reservationId, double finalPrice) {
-        String sql = "UPDATE reservations SET status = ?, total_price = ? WHERE reservation_id = ?";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, "checked-out");
-            pstmt.setDouble(2, finalPrice);
-            pstmt.setInt(3, Integer.parseInt(reservationId));
-
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+    public static boolean saveCheckoutDetails(String reservationId, Money finalPrice) {
+        try {
+            int id = Integer.parseInt(reservationId);
+            WriteOutcome outcome = WriteQueue.execute(conn -> {
+                RoomInventory.Stay previousStay = RoomInventory.readStay(conn, id);
+                try (PreparedStatement pstmt = conn.prepareStatement(CHECKOUT_SQL)) {
+                    pstmt.setInt(1, ReservationStatus.CHECKED_OUT.getCode());
+                    pstmt.setLong(2, finalPrice.cents());
+                    pstmt.setInt(3, id);
+                    return new WriteOutcome(pstmt.executeUpdate(), previousStay);
+                }
+            });
+            if (outcome.affectedRows() > 0) {
+                ReservationCache.invalidate(id, null);
+                // The nights still ahead become free again; an early checkout releases the rest of the stay.
+                if (outcome.previousStay() != null) {
+                    RoomInventory.release(outcome.previousStay().from(LocalDate.now().toEpochDay()));
+                    RoomAssigner.reoptimizeFrom(LocalDate.now().toEpochDay());
+                }
+            }
+            return outcome.affectedRows() > 0;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error saving checkout details: " + e.getMessage(), e);
             return false;
@@ -443,14 +655,14 @@ public class DatabaseManager {
      * @return The reservation ID as a String, or null if not found.
      */
     private static String getReservationIdByPhoneNumber(String phoneNumber) {
-        String sql = "SELECT reservation_id FROM reservations WHERE phone_number = ? ORDER BY reservation_id DESC LIMIT 1";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            PreparedStatement pstmt = lease.prepare(LATEST_ID_BY_PHONE_SQL);
 
             pstmt.setString(1, phoneNumber);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return String.valueOf(rs.getInt("reservation_id"));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return String.valueOf(rs.getInt(1));
+                }
             }
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error finding reservation ID by phone number: " + e.getMessage(), e);
@@ -474,16 +686,18 @@ public class DatabaseManager {
             return false;
         }
 
-        String sql = "INSERT INTO feedback(reservation_id, rating, comment, submission_date) VALUES(?, ?, ?, ?)";
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, Integer.parseInt(reservationId));
-            pstmt.setInt(2, rating);
-            pstmt.setString(3, comment);
-            pstmt.setString(4, LocalDate.now().format(DATE_FORMATTER));
-
-            int affectedRows = pstmt.executeUpdate();
+        try {
+            int id = Integer.parseInt(reservationId);
+            String submissionDate = LocalDate.now().format(DATE_FORMATTER);
+            int affectedRows = WriteQueue.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(INSERT_FEEDBACK_SQL)) {
+                    pstmt.setInt(1, id);
+                    pstmt.setInt(2, rating);
+                    pstmt.setString(3, comment);
+                    pstmt.setString(4, submissionDate);
+                    return pstmt.executeUpdate();
+                }
+            });
             if (affectedRows > 0) {
                 logger.info("Feedback for reservation " + reservationId + " successfully inserted.");
                 return true;
@@ -517,6 +731,14 @@ public class DatabaseManager {
             return details;
         }
 
+        /**
+         * @return A deep copy whose Guest and ReservationDetails can be changed without affecting this one.
+         */
+        public ReservationDisplay copy() {
+            return new ReservationDisplay(guest != null ? new Guest(guest) : null,
+                    details != null ? new ReservationDetails(details) : null);
+        }
+
         // Helper getters for TableView columns
         public String getGuestFullName() {
             return guest != null ? guest.getFullName() : "N/A";
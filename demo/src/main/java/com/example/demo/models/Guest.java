@@ -23,6 +23,16 @@ public class Guest {
         this.idProofNumber = idProofNumber;
     }
 
+    /**
+     * Copy constructor. Guests are mutable, so cached guests are handed out as copies.
+     *
+     * @param other The guest to copy.
+     */
+    public Guest(Guest other) {
+        this(other.fullName, other.phoneNumber, other.email, other.address, other.province, other.city,
+                other.postalCode, other.idProofType, other.idProofNumber);
+    }
+
     // --- Getters ---
     public String getFullName() {
         return fullName;
@@ -0,0 +1,78 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Maintains the 'guest_search' FTS5 index over the guest name, email, phone number and
+ * ID proof number of every reservation. The index is an external-content table that reads
+ * its text from 'reservations', and triggers keep it in step with every insert, update and
+ * delete, so callers never have to touch it directly. Accents are folded and two- and
+ * three-character prefixes are indexed, which keeps short "search as you type" queries fast.
+ */
+public class GuestSearchIndex {
+
+    static final String TABLE = "guest_search";
+
+    static final String CREATE_TABLE_SQL = "CREATE VIRTUAL TABLE IF NOT EXISTS " + TABLE + " USING fts5(" +
+            "full_name, email, phone_number, id_proof_number, " +
+            "content='reservations', content_rowid='reservation_id', " +
+            "tokenize='unicode61 remove_diacritics 2', prefix='2 3'" +
+            ")";
+
+    static final List<String> CREATE_TRIGGERS_SQL = List.of(
+            "CREATE TRIGGER IF NOT EXISTS reservations_guest_search_insert AFTER INSERT ON reservations BEGIN " +
+                    "INSERT INTO " + TABLE + "(rowid, full_name, email, phone_number, id_proof_number) " +
+                    "VALUES (new.reservation_id, new.full_name, new.email, new.phone_number, new.id_proof_number); " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS reservations_guest_search_delete AFTER DELETE ON reservations BEGIN " +
+                    "INSERT INTO " + TABLE + "(" + TABLE + ", rowid, full_name, email, phone_number, id_proof_number) " +
+                    "VALUES ('delete', old.reservation_id, old.full_name, old.email, old.phone_number, old.id_proof_number); " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS reservations_guest_search_update " +
+                    "AFTER UPDATE OF full_name, email, phone_number, id_proof_number ON reservations BEGIN " +
+                    "INSERT INTO " + TABLE + "(" + TABLE + ", rowid, full_name, email, phone_number, id_proof_number) " +
+                    "VALUES ('delete', old.reservation_id, old.full_name, old.email, old.phone_number, old.id_proof_number); " +
+                    "INSERT INTO " + TABLE + "(rowid, full_name, email, phone_number, id_proof_number) " +
+                    "VALUES (new.reservation_id, new.full_name, new.email, new.phone_number, new.id_proof_number); " +
+                    "END"
+    );
+
+    /**
+     * Turns free text typed by an admin into an FTS5 query. Each word becomes a quoted
+     * prefix term and all terms must match, so "jane do" finds "Jane Doe" and punctuation
+     * such as '@' or '-' can never produce an FTS syntax error.
+     * @param query The text as entered, may be null.
+     * @return The MATCH expression, or an empty string if the text contains no words.
+     */
+    static String toMatchExpression(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder expression = new StringBuilder();
+        for (String token : query.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (expression.length() > 0) {
+                expression.append(' ');
+            }
+            expression.append('"').append(token).append("\"*");
+        }
+        return expression.toString();
+    }
+
+    /**
+     * Repopulates the whole index from 'reservations'. Used by the schema migration that
+     * introduces the index, so existing databases are searchable straight away.
+     * @param conn A connection inside the migration transaction.
+     * @throws SQLException If a database access error occurs.
+     */
+    static void rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO " + TABLE + "(" + TABLE + ") VALUES('rebuild')");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.models;
+
+/**
+ * An amount of money in whole cents. Prices, taxes, discounts and stored totals are all Money,
+ * so adding up a bill never picks up floating-point error and every screen rounds the same way.
+ * <p>
+ * Percentages are given in basis points (1/100 of a percent, so 13% is 1300) and the resulting
+ * share is rounded half away from zero to the cent, once per calculation. Loops that total many
+ * amounts can work on {@link #cents()} and wrap the result once at the end.
+ *
+ * @param cents The amount in cents; negative for refunds and discounts.
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final long BASIS_POINTS_PER_WHOLE = 10_000;
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    public static Money ofDollars(long dollars) {
+        return ofCents(Math.multiplyExact(dollars, 100));
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long quantity) {
+        return ofCents(Math.multiplyExact(cents, quantity));
+    }
+
+    /**
+     * @param basisPoints The percentage in basis points, such as 1300 for 13%.
+     * @return That share of this amount, rounded half away from zero to the cent.
+     */
+    public Money percent(long basisPoints) {
+        return ofCents(share(cents, basisPoints));
+    }
+
+    /**
+     * @param percent The whole-number percentage taken off, such as 15 for 15% off.
+     * @return This amount less the rounded discount.
+     */
+    public Money discountedBy(int percent) {
+        return minus(percent(percent * 100L));
+    }
+
+    /**
+     * The share of a cent amount, for loops that work on raw cents.
+     * @param cents The amount in cents.
+     * @param basisPoints The percentage in basis points.
+     * @return The share in cents, rounded half away from zero.
+     */
+    public static long share(long cents, long basisPoints) {
+        long product = Math.multiplyExact(cents, basisPoints);
+        long rounded = (Math.abs(product) + BASIS_POINTS_PER_WHOLE / 2) / BASIS_POINTS_PER_WHOLE;
+        return product < 0 ? -rounded : rounded;
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    /**
+     * @return The amount with thousands separators and two decimals, such as "1,234.50", without a currency sign.
+     */
+    public String format() {
+        return cents < 0 ? "-" + magnitude() : magnitude();
+    }
+
+    /**
+     * @return The amount in dollars, such as "$1,234.50" or "-$20.00".
+     */
+    @Override
+    public String toString() {
+        return cents < 0 ? "-$" + magnitude() : "$" + magnitude();
+    }
+
+    private String magnitude() {
+        StringBuilder text = new StringBuilder(16);
+        long whole = Math.abs(cents / 100);
+        long fraction = Math.abs(cents % 100);
+        String digits = Long.toString(whole);
+        for (int i = 0; i < digits.length(); i++) {
+            if (i > 0 && (digits.length() - i) % 3 == 0) {
+                text.append(',');
+            }
+            text.append(digits.charAt(i));
+        }
+        text.append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        text.append(fraction);
+        return text.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.models;
+
+/**
+ * The availability of every room type on one night, as read from the {@link RoomInventory}
+ * bitmap: {@link RoomInventory#LEVEL_BITS} bits per type, at the type's ordinal.
+ * @param levels The packed per-type levels.
+ */
+public record NightAvailability(int levels) {
+
+    /** A night nothing can be booked on, such as one in the past or past the booking horizon. */
+    static final NightAvailability SOLD_OUT = soldOut();
+
+    /**
+     * @param type The room type.
+     * @return How easy it is to get a room of the type that night.
+     */
+    public RoomAvailability get(RoomType type) {
+        int shift = type.ordinal() * RoomInventory.LEVEL_BITS;
+        return RoomAvailability.values()[(levels >>> shift) & RoomInventory.LEVEL_MASK];
+    }
+
+    /**
+     * @return The best availability of any room type that night: SOLD_OUT only if every type is.
+     */
+    public RoomAvailability best() {
+        RoomAvailability best = RoomAvailability.SOLD_OUT;
+        for (RoomType type : RoomType.values()) {
+            if (get(type).ordinal() < best.ordinal()) {
+                best = get(type);
+            }
+        }
+        return best;
+    }
+
+    private static NightAvailability soldOut() {
+        int levels = 0;
+        for (RoomType type : RoomType.values()) {
+            levels |= RoomAvailability.SOLD_OUT.ordinal() << (type.ordinal() * RoomInventory.LEVEL_BITS);
+        }
+        return new NightAvailability(levels);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Maintains the 'phone_suffixes' lookup table used for partial phone number searches.
+ * Every reservation's phone number is reduced to its digits and each suffix of those digits
+ * is stored as a key. A number contains a search fragment exactly when one of its suffixes
+ * starts with that fragment, so a substring search becomes a prefix range seek on the
+ * table's primary key instead of a LIKE '%...%' scan over every reservation.
+ */
+public class PhoneIndex {
+
+    // ':' sorts immediately after '9', so [fragment, fragment + ':') covers every key starting with fragment.
+    private static final char UPPER_BOUND_SUFFIX = ':';
+
+    static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS phone_suffixes (" +
+            "suffix TEXT NOT NULL," +
+            "reservation_id INTEGER NOT NULL," +
+            "PRIMARY KEY (suffix, reservation_id)" +
+            ") WITHOUT ROWID;";
+    static final String CREATE_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_phone_suffixes_reservation_id ON phone_suffixes(reservation_id)";
+
+    /**
+     * Subquery yielding the IDs of reservations whose phone number contains a fragment.
+     * Bind the two parameters with {@link #lowerBound(String)} and {@link #upperBound(String)}.
+     */
+    static final String MATCHING_IDS_SQL =
+            "SELECT reservation_id FROM phone_suffixes WHERE suffix >= ? AND suffix < ?";
+
+    /**
+     * Condition, for a query over {@code reservations}, that the row's phone number contains a
+     * fragment. It probes idx_phone_suffixes_reservation_id once per row tested, so a query that
+     * stops after a LIMIT never reads the matches past it. Bind the two parameters with
+     * {@link #lowerBound(String)} and {@link #upperBound(String)}.
+     */
+    static final String MATCHES_RESERVATION_SQL =
+            "EXISTS (SELECT 1 FROM phone_suffixes s WHERE s.reservation_id = reservations.reservation_id " +
+            "AND s.suffix >= ? AND s.suffix < ?)";
+
+    private static final String INSERT_SQL = "INSERT OR IGNORE INTO phone_suffixes(suffix, reservation_id) VALUES(?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM phone_suffixes WHERE reservation_id = ?";
+
+    /**
+     * Strips everything except digits, so "+1 (416) 555-0199" and "14165550199" match the same searches.
+     * @param phoneNumber The phone number as entered, may be null.
+     * @return The digits of the phone number, or an empty string.
+     */
+    public static String normalize(String phoneNumber) {
+        if (phoneNumber == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    static String lowerBound(String digits) {
+        return digits;
+    }
+
+    static String upperBound(String digits) {
+        return digits + UPPER_BOUND_SUFFIX;
+    }
+
+    /**
+     * Replaces the suffix rows of an existing reservation. Must run in the same transaction
+     * as the reservation update so the index never disagrees with the table.
+     * @param conn The writer connection.
+     * @param reservationId The updated reservation.
+     * @param phoneNumber The reservation's current phone number.
+     * @throws SQLException If a database access error occurs.
+     */
+    static void reindex(Connection conn, int reservationId, String phoneNumber) throws SQLException {
+        remove(conn, reservationId);
+        index(conn, reservationId, phoneNumber);
+    }
+
+    /**
+     * Adds the suffix rows of a new reservation. Must run in the same transaction as the
+     * reservation insert so the index never disagrees with the table.
+     * @param conn The writer connection.
+     * @param reservationId The new reservation.
+     * @param phoneNumber The reservation's phone number.
+     * @throws SQLException If a database access error occurs.
+     */
+    static void index(Connection conn, int reservationId, String phoneNumber) throws SQLException {
+        String digits = normalize(phoneNumber);
+        if (digits.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (int start = 0; start < digits.length(); start++) {
+                pstmt.setString(1, digits.substring(start));
+                pstmt.setInt(2, reservationId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Removes the suffix rows of a deleted reservation.
+     * @param conn The writer connection.
+     * @param reservationId The deleted reservation.
+     * @throws SQLException If a database access error occurs.
+     */
+    static void remove(Connection conn, int reservationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+            pstmt.setInt(1, reservationId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Rebuilds the whole table from 'reservations'. Used by the schema migration that
+     * introduces the index, so existing databases are searchable straight away.
+     * @param conn A connection inside the migration transaction.
+     * @throws SQLException If a database access error occurs.
+     */
+    static void rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM phone_suffixes");
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT reservation_id, phone_number FROM reservations")) {
+            while (rs.next()) {
+                index(conn, rs.getInt(1), rs.getString(2));
+            }
+        }
+    }
+}
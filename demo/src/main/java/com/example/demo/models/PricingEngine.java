@@ -0,0 +1,178 @@
+package com.example.demo.models;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Prices stays. Every screen that quotes or bills a reservation goes through here, so the
+ * kiosk, checkout, booking edits and reports always agree on the amount.
+ * <p>
+ * The current {@link RatePlan} is expanded into a rate calendar: for each room type, the running
+ * total of its nightly rates from a year back to the end of the booking horizon. The room
+ * charge for any stay inside that range is then the difference of two running totals, so a
+ * quote costs the same for one night as for a month. Stays outside the range are priced night
+ * by night. All amounts are {@link Money}; the running totals are raw cents so building and
+ * reading the calendar allocates nothing per night.
+ */
+public class PricingEngine {
+
+    private static final Logger logger = Logger.getLogger(PricingEngine.class.getName());
+
+    /** Sales tax charged on room charges, in basis points (13%). */
+    public static final long TAX_BASIS_POINTS = 1300;
+
+    // Nights covered by the calendar before today, for billing stays that started in the past.
+    private static final int PAST_DAYS = 366;
+
+    private static final RoomType[] TYPES = RoomType.values();
+
+    /**
+     * The price of a stay.
+     * @param roomCharges The room charges before tax.
+     * @param tax The tax on the room charges.
+     */
+    public record Quote(Money roomCharges, Money tax) {
+
+        public static final Quote ZERO = new Quote(Money.ZERO, Money.ZERO);
+
+        /** @return The room charges plus tax. */
+        public Money total() {
+            return roomCharges.plus(tax);
+        }
+    }
+
+    private static final class RateCalendar {
+        private final RatePlan plan;
+        private final long firstDay;
+        private final int nights;
+        // runningCents[type][i] is the cost of one room of the type for nights firstDay .. firstDay + i - 1.
+        private final long[][] runningCents = new long[TYPES.length][];
+
+        private RateCalendar(RatePlan plan, long firstDay, int nights) {
+            this.plan = plan;
+            this.firstDay = firstDay;
+            this.nights = nights;
+            for (RoomType type : TYPES) {
+                long[] running = new long[nights + 1];
+                for (int i = 0; i < nights; i++) {
+                    running[i + 1] = running[i] + plan.rateCents(type, LocalDate.ofEpochDay(firstDay + i));
+                }
+                runningCents[type.ordinal()] = running;
+            }
+        }
+
+        private long chargeCents(RoomType type, long checkInDay, long checkOutDay) {
+            if (checkInDay >= firstDay && checkOutDay <= firstDay + nights) {
+                long[] running = runningCents[type.ordinal()];
+                return running[(int) (checkOutDay - firstDay)] - running[(int) (checkInDay - firstDay)];
+            }
+            long cents = 0;
+            for (long day = checkInDay; day < checkOutDay; day++) {
+                cents += plan.rateCents(type, LocalDate.ofEpochDay(day));
+            }
+            return cents;
+        }
+    }
+
+    // Replaced as a whole when the plan changes, so a quote never mixes two plans.
+    private static volatile RateCalendar calendar = build(RatePlan.standard());
+
+    /**
+     * Switches to a different rate plan for every quote from now on.
+     * @param plan The plan to charge.
+     */
+    public static void usePlan(RatePlan plan) {
+        calendar = build(plan);
+        logger.info("Pricing with rate plan '" + plan.getName() + "'.");
+    }
+
+    /**
+     * @return The rate plan in use.
+     */
+    public static RatePlan currentPlan() {
+        return calendar.plan;
+    }
+
+    /**
+     * Prices the rooms of a reservation for its dates.
+     * @param details The reservation; its room counts and check-in and check-out dates are used.
+     * @return The quote; zero if either date is missing or check-out is not after check-in.
+     */
+    public static Quote quote(ReservationDetails details) {
+        int[] rooms = new int[TYPES.length];
+        for (RoomType type : TYPES) {
+            rooms[type.ordinal()] = type.countIn(details);
+        }
+        return quote(rooms, details.getCheckInDate(), details.getCheckOutDate());
+    }
+
+    /**
+     * Prices a room mix for a stay.
+     * @param rooms How many rooms of each type; missing types count as none.
+     * @param checkIn The first night.
+     * @param checkOut The day of departure; that night is not charged.
+     * @return The quote; zero if either date is missing or check-out is not after check-in.
+     */
+    public static Quote quote(Map<RoomType, Integer> rooms, LocalDate checkIn, LocalDate checkOut) {
+        int[] counts = new int[TYPES.length];
+        for (RoomType type : TYPES) {
+            counts[type.ordinal()] = rooms.getOrDefault(type, 0);
+        }
+        return quote(counts, checkIn, checkOut);
+    }
+
+    /**
+     * The room charge for one room of a type over a stay, before tax.
+     * @param type The room type.
+     * @param checkIn The first night.
+     * @param checkOut The day of departure; that night is not charged.
+     * @return The charge; zero if either date is missing or check-out is not after check-in.
+     */
+    public static Money roomCharges(RoomType type, LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            return Money.ZERO;
+        }
+        RateCalendar current = calendar;
+        return Money.ofCents(current.chargeCents(type, checkIn.toEpochDay(), checkOut.toEpochDay()));
+    }
+
+    /**
+     * @param type The room type.
+     * @param night The night, by the date it starts.
+     * @return What one room of the type costs that night.
+     */
+    public static Money nightlyRate(RoomType type, LocalDate night) {
+        RateCalendar current = calendar;
+        return Money.ofCents(current.chargeCents(type, night.toEpochDay(), night.toEpochDay() + 1));
+    }
+
+    /**
+     * @param roomCharges Room charges.
+     * @return The tax on them, rounded to the cent.
+     */
+    public static Money taxOn(Money roomCharges) {
+        return roomCharges.percent(TAX_BASIS_POINTS);
+    }
+
+    private static Quote quote(int[] rooms, LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            return Quote.ZERO;
+        }
+        RateCalendar current = calendar;
+        long roomChargesCents = 0;
+        for (RoomType type : TYPES) {
+            if (rooms[type.ordinal()] > 0) {
+                roomChargesCents += rooms[type.ordinal()]
+                        * current.chargeCents(type, checkIn.toEpochDay(), checkOut.toEpochDay());
+            }
+        }
+        Money roomCharges = Money.ofCents(roomChargesCents);
+        return new Quote(roomCharges, taxOn(roomCharges));
+    }
+
+    private static RateCalendar build(RatePlan plan) {
+        long today = LocalDate.now().toEpochDay();
+        return new RateCalendar(plan, today - PAST_DAYS, PAST_DAYS + RoomInventory.HORIZON_DAYS);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Runs EXPLAIN QUERY PLAN against the lookups in {@link DatabaseManager#indexedQueries()}
+ * and refuses to continue if any of them would read a whole table. This catches a dropped
+ * index or a rewritten query at startup instead of months later when the file has grown.
+ */
+public class QueryPlanVerifier {
+
+    private static final Logger logger = Logger.getLogger(QueryPlanVerifier.class.getName());
+
+    /**
+     * Checks the plan of every indexed query.
+     * @throws SQLException If a plan cannot be obtained.
+     * @throws IllegalStateException If any query degrades to a full table scan.
+     */
+    public static void verify() throws SQLException {
+        List<String> violations = new ArrayList<>();
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            for (Map.Entry<String, String> query : DatabaseManager.indexedQueries().entrySet()) {
+                for (String step : explain(lease.getConnection(), query.getValue())) {
+                    if (isFullScan(step)) {
+                        violations.add(query.getKey() + ": " + step);
+                    }
+                }
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Query plan check failed, these lookups scan a whole table: " + violations);
+        }
+        logger.info("Query plan check passed for " + DatabaseManager.indexedQueries().size() + " indexed queries.");
+    }
+
+    /**
+     * Returns the 'detail' column of EXPLAIN QUERY PLAN for the given statement.
+     * Every parameter is bound to NULL, which does not change the chosen plan.
+     */
+    static List<String> explain(Connection conn, String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int parameterCount = pstmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                pstmt.setNull(i, Types.NULL);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    steps.add(rs.getString("detail"));
+                }
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * A step is a full scan when SQLite walks a table (or all of an index) rather than
+     * searching it. Virtual tables such as FTS report their own lookups as SCAN and are allowed.
+     */
+    static boolean isFullScan(String step) {
+        return step.startsWith("SCAN ") && !step.contains("VIRTUAL TABLE");
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.models;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The nightly room rates the hotel charges: a weekday and a weekend rate per room type, with
+ * optional seasons that scale the rate for a range of nights. Friday and Saturday nights are
+ * weekend nights. Rates are in whole cents. A plan is immutable; {@link PricingEngine} prices
+ * stays against the plan currently in use.
+ * <p>
+ * The standard plan charges $100, $150, $250 and $350 a night for single, double, deluxe and
+ * penthouse rooms on every night. Each rate can be overridden at startup with system properties
+ * such as {@code -Dhotel.rates.deluxe.weekend=30000} (in cents).
+ */
+public final class RatePlan {
+
+    private static final String RATE_PROPERTY_PREFIX = "hotel.rates.";
+
+    /**
+     * A range of nights charged at a percentage of the normal rate.
+     * @param from The first night of the season.
+     * @param until The night after the last night of the season.
+     * @param percent The share of the normal rate charged, such as 120 for 20% more.
+     */
+    public record Season(LocalDate from, LocalDate until, int percent) {
+
+        boolean covers(LocalDate night) {
+            return !night.isBefore(from) && night.isBefore(until);
+        }
+    }
+
+    private final String name;
+    private final long[] weekdayCents;
+    private final long[] weekendCents;
+    private final List<Season> seasons;
+
+    private RatePlan(Builder builder) {
+        this.name = builder.name;
+        this.weekdayCents = builder.weekdayCents.clone();
+        this.weekendCents = builder.weekendCents.clone();
+        this.seasons = List.copyOf(builder.seasons);
+    }
+
+    /**
+     * @return The standard plan, with any rates overridden by system properties.
+     */
+    public static RatePlan standard() {
+        Builder builder = builder("Standard")
+                .rate(RoomType.SINGLE, 100_00)
+                .rate(RoomType.DOUBLE, 150_00)
+                .rate(RoomType.DELUXE, 250_00)
+                .rate(RoomType.PENTHOUSE, 350_00);
+        for (RoomType type : RoomType.values()) {
+            String prefix = RATE_PROPERTY_PREFIX + type.name().toLowerCase() + ".";
+            builder.weekdayCents[type.ordinal()] = Long.getLong(prefix + "weekday", builder.weekdayCents[type.ordinal()]);
+            builder.weekendCents[type.ordinal()] = Long.getLong(prefix + "weekend", builder.weekendCents[type.ordinal()]);
+        }
+        return builder.build();
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param type The room type.
+     * @param night The night, by the date it starts.
+     * @return What one room of the type costs that night, in cents.
+     */
+    public long rateCents(RoomType type, LocalDate night) {
+        DayOfWeek day = night.getDayOfWeek();
+        boolean weekend = day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY;
+        long cents = weekend ? weekendCents[type.ordinal()] : weekdayCents[type.ordinal()];
+        // The last season listed wins where seasons overlap.
+        for (int i = seasons.size() - 1; i >= 0; i--) {
+            if (seasons.get(i).covers(night)) {
+                // Same whole-cent rounding as every other share of a price
+                return Money.share(cents, seasons.get(i).percent() * 100L);
+            }
+        }
+        return cents;
+    }
+
+    /**
+     * The standard weekday rate, for showing a "from" price.
+     * @param type The room type.
+     * @return The weekday rate in cents.
+     */
+    public long weekdayRateCents(RoomType type) {
+        return weekdayCents[type.ordinal()];
+    }
+
+    public static final class Builder {
+        private final String name;
+        private final long[] weekdayCents = new long[RoomType.values().length];
+        private final long[] weekendCents = new long[RoomType.values().length];
+        private final List<Season> seasons = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /** Charges the same rate every night of the week. */
+        public Builder rate(RoomType type, long cents) {
+            return rate(type, cents, cents);
+        }
+
+        public Builder rate(RoomType type, long weekdayCents, long weekendCents) {
+            this.weekdayCents[type.ordinal()] = weekdayCents;
+            this.weekendCents[type.ordinal()] = weekendCents;
+            return this;
+        }
+
+        public Builder season(LocalDate from, LocalDate until, int percent) {
+            seasons.add(new Season(from, until, percent));
+            return this;
+        }
+
+        public RatePlan build() {
+            return new RatePlan(this);
+        }
+    }
+}
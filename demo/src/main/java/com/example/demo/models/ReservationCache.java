@@ -0,0 +1,211 @@
+package com.example.demo.models;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Read-through cache in front of the reservation lookups that admin screens repeat:
+ * reservations by ID and phone number searches. Both maps are bounded LRU maps whose
+ * entries also expire after {@link #TTL_NANOS}. Full reservations go in and come out as copies,
+ * because Guest and ReservationDetails are mutable and screens edit what they are given;
+ * searches hold immutable {@link ReservationSummary} lists.
+ * <p>
+ * {@link DatabaseManager} invalidates entries after each committed write. A read that started
+ * before a write committed may finish after the invalidation; {@link #generation()} lets the
+ * loader detect that and skip caching the stale result.
+ */
+public class ReservationCache {
+
+    private static final Logger logger = Logger.getLogger(ReservationCache.class.getName());
+
+    private static final int MAX_RESERVATIONS = 512;
+    private static final int MAX_PHONE_SEARCHES = 64;
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    /**
+     * Counters since startup.
+     * @param hits Lookups answered from the cache.
+     * @param misses Lookups that went to the database.
+     * @param evictions Entries dropped for being least recently used or expired.
+     */
+    public record Stats(long hits, long misses, long evictions) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private record Entry<T>(T value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    private record PhoneSearch(List<ReservationSummary> rows) {
+        boolean contains(int reservationId) {
+            for (ReservationSummary row : rows) {
+                if (row.reservationId() == reservationId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final Map<Integer, Entry<DatabaseManager.ReservationDisplay>> byId =
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Entry<DatabaseManager.ReservationDisplay>> eldest) {
+                    return evictIf(size() > MAX_RESERVATIONS);
+                }
+            };
+
+    // Keyed by the searched digits; "" is the unfiltered list of every reservation.
+    private static final Map<String, Entry<PhoneSearch>> byPhone =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry<PhoneSearch>> eldest) {
+                    return evictIf(size() > MAX_PHONE_SEARCHES);
+                }
+            };
+
+    private static long generation;
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+
+    /**
+     * Call before reading from the database, and pass the value to the matching put method.
+     * @return The current invalidation generation.
+     */
+    static synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * @param reservationId The reservation to look up.
+     * @return A copy of the cached reservation, or null on a miss.
+     */
+    static synchronized DatabaseManager.ReservationDisplay getById(int reservationId) {
+        Entry<DatabaseManager.ReservationDisplay> entry = fresh(byId, reservationId);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value().copy();
+    }
+
+    /**
+     * @param digits The normalized search digits, or "" for the list of every reservation.
+     * @return The cached search results as an unmodifiable list, or null on a miss.
+     */
+    static synchronized List<ReservationSummary> getPhoneSearch(String digits) {
+        Entry<PhoneSearch> entry = fresh(byPhone, digits);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value().rows();
+    }
+
+    /**
+     * Caches reservations read from the database, unless a write committed since the read began.
+     * @param readGeneration The value of {@link #generation()} taken before the read.
+     * @param rows The reservations read.
+     */
+    static synchronized void putReservations(long readGeneration, List<DatabaseManager.ReservationDisplay> rows) {
+        if (readGeneration != generation) {
+            return;
+        }
+        long expiresAt = System.nanoTime() + TTL_NANOS;
+        for (DatabaseManager.ReservationDisplay row : rows) {
+            byId.put(idOf(row), new Entry<>(row.copy(), expiresAt));
+        }
+    }
+
+    /**
+     * Caches a phone search, unless a write committed since the read began.
+     * @param readGeneration The value of {@link #generation()} taken before the read.
+     * @param digits The normalized search digits, or "" for the list of every reservation.
+     * @param rows The search results.
+     */
+    static synchronized void putPhoneSearch(long readGeneration, String digits, List<ReservationSummary> rows) {
+        if (readGeneration != generation) {
+            return;
+        }
+        byPhone.put(digits, new Entry<>(new PhoneSearch(List.copyOf(rows)), System.nanoTime() + TTL_NANOS));
+    }
+
+    /**
+     * Drops everything a committed write to one reservation may have made stale: the reservation
+     * itself, every cached search it appeared in, and every cached search its phone number now matches.
+     * @param reservationId The reservation that was inserted, updated or deleted.
+     * @param phoneNumber Its phone number after the write, or null if the write did not set one.
+     */
+    static synchronized void invalidate(int reservationId, String phoneNumber) {
+        generation++;
+        byId.remove(reservationId);
+        String digits = phoneNumber != null ? PhoneIndex.normalize(phoneNumber) : null;
+        Iterator<Map.Entry<String, Entry<PhoneSearch>>> searches = byPhone.entrySet().iterator();
+        while (searches.hasNext()) {
+            Map.Entry<String, Entry<PhoneSearch>> search = searches.next();
+            if (search.getValue().value().contains(reservationId)
+                    || (digits != null && digits.contains(search.getKey()))) {
+                searches.remove();
+            }
+        }
+    }
+
+    /**
+     * Empties the cache. Counters are kept.
+     */
+    public static synchronized void clear() {
+        generation++;
+        byId.clear();
+        byPhone.clear();
+    }
+
+    /**
+     * @return Hit, miss and eviction counts since startup.
+     */
+    public static synchronized Stats stats() {
+        return new Stats(hits, misses, evictions);
+    }
+
+    /**
+     * Logs the counters. Called from {@code MainApplication.stop()}.
+     */
+    public static void logStats() {
+        Stats stats = stats();
+        logger.info(String.format("Reservation cache: %d hits, %d misses (%.0f%% hit rate), %d evictions.",
+                stats.hits(), stats.misses(), stats.hitRate() * 100, stats.evictions()));
+    }
+
+    // Returns the entry for key, removing and counting it as an eviction if it has expired.
+    private static <K, T> Entry<T> fresh(Map<K, Entry<T>> map, K key) {
+        Entry<T> entry = map.get(key);
+        if (entry != null && entry.isExpired(System.nanoTime())) {
+            map.remove(key);
+            evictions++;
+            return null;
+        }
+        return entry;
+    }
+
+    private static boolean evictIf(boolean overCapacity) {
+        if (overCapacity) {
+            evictions++;
+        }
+        return overCapacity;
+    }
+
+    private static int idOf(DatabaseManager.ReservationDisplay row) {
+        return Integer.parseInt(row.getDetails().getReservationId());
+    }
+}
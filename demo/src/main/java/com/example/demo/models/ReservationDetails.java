@@ -15,11 +15,12 @@ public class ReservationDetails {
     private int doubleRooms;
     private int deluxeRooms;
     private int penthouses;
-    private double estimatedPrice;
+    private Money estimatedPrice;
     private String status;    // New field for reservation status (e.g., "Confirmed", "Pending")
     private String roomNumber; // New field for assigned room number
     private String roomType;   // New field for assigned room type
     private double discount; // New field for the discount
+    private String holdId;   // Room hold placed during the kiosk flow; not saved
 
     /**
      * Constructor for creating a new reservation with initial dates and guest counts.
@@ -39,7 +40,7 @@ public class ReservationDetails {
         this.doubleRooms = 0;
         this.deluxeRooms = 0;
         this.penthouses = 0;
-        this.estimatedPrice = 0.0;
+        this.estimatedPrice = Money.ZERO;
         this.reservationId = null; // Initialize as null, will be set by DB
         this.status = "booked";    // Default status when a booking is initially made
         this.roomNumber = "N/A";   // Default room number
@@ -57,7 +58,7 @@ public class ReservationDetails {
         this.doubleRooms = 0;
         this.deluxeRooms = 0;
         this.penthouses = 0;
-        this.estimatedPrice = 0.0;
+        this.estimatedPrice = Money.ZERO;
         this.reservationId = null; // Initialize as null, will be set by DB
         this.status = "Pending";   // Default status
         this.roomNumber = "N/A";   // Default room number
@@ -65,6 +66,29 @@ public class ReservationDetails {
         this.discount = 0.0;
     }
 
+    /**
+     * Copy constructor. Reservation details are mutable, so cached reservations are handed out as copies.
+     *
+     * @param other The reservation details to copy.
+     */
+    public ReservationDetails(ReservationDetails other) {
+        this.reservationId = other.reservationId;
+        this.checkInDate = other.checkInDate;
+        this.checkOutDate = other.checkOutDate;
+        this.numberOfAdults = other.numberOfAdults;
+        this.numberOfChildren = other.numberOfChildren;
+        this.singleRooms = other.singleRooms;
+        this.doubleRooms = other.doubleRooms;
+        this.deluxeRooms = other.deluxeRooms;
+        this.penthouses = other.penthouses;
+        this.estimatedPrice = other.estimatedPrice;
+        this.status = other.status;
+        this.roomNumber = other.roomNumber;
+        this.roomType = other.roomType;
+        this.discount = other.discount;
+        this.holdId = other.holdId;
+    }
+
     // Getters
     public String getReservationId() {
         return reservationId;
@@ -110,7 +134,7 @@ public class ReservationDetails {
         return penthouses;
     }
 
-    public double getEstimatedPrice() {
+    public Money getEstimatedPrice() {
         // Return the stored estimated price, which is set by the controller.
         return estimatedPrice;
     }
@@ -131,6 +155,10 @@ public class ReservationDetails {
         return discount;
     }
 
+    public String getHoldId() {
+        return holdId;
+    }
+
     // Setters
     public void setReservationId(String reservationId) {
         this.reservationId = reservationId;
@@ -168,7 +196,7 @@ public class ReservationDetails {
         this.penthouses = penthouses;
     }
 
-    public void setEstimatedPrice(double estimatedPrice) {
+    public void setEstimatedPrice(Money estimatedPrice) {
         this.estimatedPrice = estimatedPrice;
     }
 
@@ -184,6 +212,10 @@ public class ReservationDetails {
         this.roomType = roomType;
     }
 
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+
     public void setDiscount(double discount) {
         this.discount = discount;
     }
@@ -241,7 +273,7 @@ public class ReservationDetails {
         summary.append("Check-out Date: ").append(checkOutDate != null ? checkOutDate.format(formatter) : "N/A").append("\n");
         summary.append("Total Guests: ").append(numberOfAdults + numberOfChildren).append(" (").append(numberOfAdults).append(" Adults, ").append(numberOfChildren).append(" Children)\n");
         summary.append("Rooms: ").append(singleRooms).append(" Single, ").append(doubleRooms).append(" Double, ").append(deluxeRooms).append(" Deluxe, ").append(penthouses).append(" Penthouse\n");
-        summary.append("Estimated Total Price: $").append(String.format("%.2f", estimatedPrice));
+        summary.append("Estimated Total Price: ").append(estimatedPrice);
         summary.append("\nStatus: ").append(status); // Display the stored status
         summary.append("\nAssigned Room: ").append(roomNumber).append(" (").append(roomType).append(")");
         return summary.toString();
@@ -0,0 +1,28 @@
+package com.example.demo.models;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated reservation search, in reservation ID order.
+ * Pass {@link #lastReservationId()} as the {@code afterId} of the next request to continue.
+ * @param rows The reservations on this page.
+ * @param hasMore true if at least one more reservation matches after this page.
+ */
+public record ReservationPage(List<ReservationSummary> rows, boolean hasMore) {
+
+    /**
+     * Wraps a complete, unpaged result as a single final page.
+     * @param rows Every matching reservation.
+     * @return A page with no further pages after it.
+     */
+    public static ReservationPage of(List<ReservationSummary> rows) {
+        return new ReservationPage(rows, false);
+    }
+
+    /**
+     * @return The ID of the last reservation on this page, or 0 if the page is empty.
+     */
+    public int lastReservationId() {
+        return rows.isEmpty() ? 0 : rows.get(rows.size() - 1).reservationId();
+    }
+}
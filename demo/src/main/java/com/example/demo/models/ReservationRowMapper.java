@@ -0,0 +1,130 @@
+package com.example.demo.models;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns rows of a reservation query into {@link DatabaseManager.ReservationDisplay} objects.
+ * Column positions are looked up once per SQL statement and then read by index, so mapping
+ * a row does no name lookups and allocates nothing beyond the Guest and ReservationDetails
+ * it returns. Dates, prices and statuses are stored as integers, so nothing is parsed either.
+ */
+public class ReservationRowMapper {
+
+    private static final String[] COLUMN_NAMES = {
+            "reservation_id", "full_name", "phone_number", "check_in_day",
+            "email", "address", "province", "city", "postal_code",
+            "id_proof_type", "id_proof_number", "check_out_day", "adults", "children", "single_rooms", "double_rooms",
+            "deluxe_rooms", "penthouse_rooms", "total_price_cents", "status_code", "room_number", "room_type"
+    };
+
+    /** Every reservation column, for "SELECT " + COLUMNS + " FROM reservations ...". */
+    static final String COLUMNS = String.join(", ", COLUMN_NAMES);
+
+    // One mapper per distinct SQL string; a statement's column layout never changes.
+    private static final Map<String, ReservationRowMapper> MAPPERS = new ConcurrentHashMap<>();
+
+    private final int reservationId;
+    private final int fullName;
+    private final int phoneNumber;
+    private final int email;
+    private final int address;
+    private final int province;
+    private final int city;
+    private final int postalCode;
+    private final int idProofType;
+    private final int idProofNumber;
+    private final int checkInDay;
+    private final int checkOutDay;
+    private final int adults;
+    private final int children;
+    private final int singleRooms;
+    private final int doubleRooms;
+    private final int deluxeRooms;
+    private final int penthouseRooms;
+    private final int totalPriceCents;
+    private final int statusCode;
+    private final int roomNumber;
+    private final int roomType;
+
+    private ReservationRowMapper(ResultSet rs) throws SQLException {
+        reservationId = rs.findColumn("reservation_id");
+        fullName = rs.findColumn("full_name");
+        phoneNumber = rs.findColumn("phone_number");
+        email = rs.findColumn("email");
+        address = rs.findColumn("address");
+        province = rs.findColumn("province");
+        city = rs.findColumn("city");
+        postalCode = rs.findColumn("postal_code");
+        idProofType = rs.findColumn("id_proof_type");
+        idProofNumber = rs.findColumn("id_proof_number");
+        checkInDay = rs.findColumn("check_in_day");
+        checkOutDay = rs.findColumn("check_out_day");
+        adults = rs.findColumn("adults");
+        children = rs.findColumn("children");
+        singleRooms = rs.findColumn("single_rooms");
+        doubleRooms = rs.findColumn("double_rooms");
+        deluxeRooms = rs.findColumn("deluxe_rooms");
+        penthouseRooms = rs.findColumn("penthouse_rooms");
+        totalPriceCents = rs.findColumn("total_price_cents");
+        statusCode = rs.findColumn("status_code");
+        roomNumber = rs.findColumn("room_number");
+        roomType = rs.findColumn("room_type");
+    }
+
+    /**
+     * Returns the mapper for a statement, resolving its column positions the first time it is seen.
+     * @param sql The SQL that produced the result set; used as the cache key.
+     * @param rs A result set of that statement.
+     * @return The mapper for that statement's column layout.
+     * @throws SQLException If a reservation column is missing from the result set.
+     */
+    static ReservationRowMapper forQuery(String sql, ResultSet rs) throws SQLException {
+        ReservationRowMapper mapper = MAPPERS.get(sql);
+        if (mapper == null) {
+            mapper = new ReservationRowMapper(rs);
+            MAPPERS.put(sql, mapper);
+        }
+        return mapper;
+    }
+
+    /**
+     * Builds a ReservationDisplay from the current row.
+     * @param rs The result set, positioned on a row.
+     * @return The guest and reservation details of that row.
+     * @throws SQLException If a database access error occurs.
+     */
+    DatabaseManager.ReservationDisplay map(ResultSet rs) throws SQLException {
+        Guest guest = new Guest(
+                rs.getString(fullName),
+                rs.getString(phoneNumber),
+                rs.getString(email),
+                rs.getString(address),
+                rs.getString(province),
+                rs.getString(city),
+                rs.getString(postalCode),
+                rs.getString(idProofType),
+                rs.getString(idProofNumber)
+        );
+
+        ReservationDetails details = new ReservationDetails();
+        details.setReservationId(String.valueOf(rs.getInt(reservationId)));
+        details.setCheckInDate(LocalDate.ofEpochDay(rs.getLong(checkInDay)));
+        details.setCheckOutDate(LocalDate.ofEpochDay(rs.getLong(checkOutDay)));
+        details.setNumberOfAdults(rs.getInt(adults));
+        details.setNumberOfChildren(rs.getInt(children));
+        details.setSingleRooms(rs.getInt(singleRooms));
+        details.setDoubleRooms(rs.getInt(doubleRooms));
+        details.setDeluxeRooms(rs.getInt(deluxeRooms));
+        details.setPenthouses(rs.getInt(penthouseRooms));
+        details.setEstimatedPrice(Money.ofCents(rs.getLong(totalPriceCents)));
+        details.setStatus(ReservationStatus.fromCode(rs.getInt(statusCode)).getLabel());
+        details.setRoomNumber(rs.getString(roomNumber));
+        details.setRoomType(rs.getString(roomType));
+
+        return new DatabaseManager.ReservationDisplay(guest, details);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.models;
+
+/**
+ * The lifecycle states of a reservation. The database stores only {@link #getCode()};
+ * {@link #getLabel()} is what the screens display and what ReservationDetails carries.
+ * Codes are part of the on-disk format and must never be renumbered.
+ */
+public enum ReservationStatus {
+
+    PENDING(0, "Pending"),
+    BOOKED(1, "Booked"),
+    CONFIRMED(2, "Confirmed"),
+    CHECKED_IN(3, "Checked-in"),
+    CHECKED_OUT(4, "Checked-out"),
+    CANCELLED(5, "Cancelled");
+
+    private static final ReservationStatus[] BY_CODE = new ReservationStatus[values().length];
+
+    static {
+        for (ReservationStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+    }
+
+    private final int code;
+    private final String label;
+
+    ReservationStatus(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return true if a reservation in this status occupies its rooms for its nights.
+     */
+    public boolean holdsRooms() {
+        return this != CHECKED_OUT && this != CANCELLED;
+    }
+
+    /**
+     * @param code A stored status code.
+     * @return The matching status, or {@link #PENDING} for a code this build does not know.
+     */
+    public static ReservationStatus fromCode(int code) {
+        if (code >= 0 && code < BY_CODE.length) {
+            return BY_CODE[code];
+        }
+        return PENDING;
+    }
+
+    /**
+     * Matches a status label regardless of case, so "checked-out" and "Checked-out" are the same status.
+     * @param label The label, may be null.
+     * @return The matching status, or null if the label is not a known status.
+     */
+    public static ReservationStatus fromLabel(String label) {
+        if (label == null) {
+            return null;
+        }
+        String trimmed = label.trim();
+        for (ReservationStatus status : values()) {
+            if (status.label.equalsIgnoreCase(trimmed)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the status to store for a label, treating unknown or missing labels as {@link #PENDING}.
+     * @param label The label held by ReservationDetails.
+     * @return The status code to store.
+     */
+    public static int codeOf(String label) {
+        ReservationStatus status = fromLabel(label);
+        return status != null ? status.code : PENDING.code;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.models;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Read-only projection of a reservation for list screens: just the columns the tables show,
+ * read by a narrow query. It deliberately has no address or ID proof fields. Screens load the
+ * full Guest and ReservationDetails with {@link DatabaseManager#getReservationById(String)}
+ * only when an admin opens a reservation.
+ */
+public record ReservationSummary(int reservationId, String guestFullName, String guestPhoneNumber,
+                                 LocalDate checkInDate, int singleRooms, int doubleRooms, int deluxeRooms,
+                                 int penthouses, String roomNumber, ReservationStatus status) {
+
+    private static final DateTimeFormatter DISPLAY_DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+
+    /** The summary columns in the order {@link #fromRow(ResultSet)} reads them. */
+    static final String COLUMNS = "reservation_id, full_name, phone_number, check_in_day, " +
+            "single_rooms, double_rooms, deluxe_rooms, penthouse_rooms, room_number, status_code";
+
+    /**
+     * Returns {@link #COLUMNS} with every column qualified by a table alias, for joins.
+     * @param alias The table alias used for 'reservations'.
+     * @return The qualified column list.
+     */
+    static String columns(String alias) {
+        return alias + "." + COLUMNS.replace(", ", ", " + alias + ".");
+    }
+
+    /**
+     * Reads the current row of a query that selects {@link #COLUMNS} first, in order.
+     * @param rs The result set, positioned on a row.
+     * @return The summary of that row.
+     * @throws SQLException If a database access error occurs.
+     */
+    static ReservationSummary fromRow(ResultSet rs) throws SQLException {
+        return new ReservationSummary(
+                rs.getInt(1),
+                rs.getString(2),
+                rs.getString(3),
+                LocalDate.ofEpochDay(rs.getLong(4)),
+                rs.getInt(5),
+                rs.getInt(6),
+                rs.getInt(7),
+                rs.getInt(8),
+                rs.getString(9),
+                ReservationStatus.fromCode(rs.getInt(10)));
+    }
+
+    // Bean-style getters for TableView PropertyValueFactory columns.
+
+    public String getGuestFullName() {
+        return guestFullName != null ? guestFullName : "N/A";
+    }
+
+    public String getGuestPhoneNumber() {
+        return guestPhoneNumber != null ? guestPhoneNumber : "N/A";
+    }
+
+    public String getReservationIdValue() {
+        return String.valueOf(reservationId);
+    }
+
+    public String getRoomDetailsSummary() {
+        StringBuilder sb = new StringBuilder();
+        if (singleRooms > 0) sb.append(singleRooms).append("S ");
+        if (doubleRooms > 0) sb.append(doubleRooms).append("D ");
+        if (deluxeRooms > 0) sb.append(deluxeRooms).append("DX ");
+        if (penthouses > 0) sb.append(penthouses).append("PH ");
+        String roomSummary = sb.toString().trim();
+
+        if (roomNumber != null && !roomNumber.isEmpty()) {
+            if (!roomSummary.isEmpty()) {
+                roomSummary += " (Rm: " + roomNumber + ")";
+            } else {
+                roomSummary = "Rm: " + roomNumber;
+            }
+        }
+        return !roomSummary.isEmpty() ? roomSummary : "N/A";
+    }
+
+    public String getCheckInDateFormatted() {
+        return checkInDate != null ? checkInDate.format(DISPLAY_DATE_FORMATTER) : "N/A";
+    }
+
+    public String getStatus() {
+        return status != null ? status.getLabel() : "N/A";
+    }
+}
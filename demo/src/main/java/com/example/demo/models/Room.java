@@ -0,0 +1,10 @@
+package com.example.demo.models;
+
+/**
+ * One physical room from the 'rooms' registry.
+ * @param number The room number shown to guests and staff, such as "204".
+ * @param type The kind of room.
+ * @param floor The floor the room is on.
+ */
+public record Room(String number, RoomType type, int floor) {
+}
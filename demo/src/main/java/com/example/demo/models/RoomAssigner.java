@@ -0,0 +1,541 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Assigns concrete rooms from the {@link RoomRegistry} to every reservation that holds rooms,
+ * recorded in the 'room_assignments' table and mirrored into the reservation's room_number text.
+ * <p>
+ * Assignment is interval scheduling per room type. Stays are placed in check-in order, each into
+ * one room for its whole stay (guests never change rooms mid-stay). A room is only considered if
+ * it is free on every night of the stay, so two overlapping stays never share a room. Among the
+ * free rooms, a stay keeps the room it had from the previous pass if it still fits, so guests who
+ * were already told a number keep it; otherwise it takes the best fit, the room that leaves the
+ * smallest idle gap before and after it, which packs stays back to back and keeps long runs of
+ * nights open in the other rooms. Because {@link RoomInventory} never lets a night hold more
+ * stays of a type than there are rooms, placing in check-in order always finds a room.
+ * <p>
+ * Stays that began before the window, and rooms an admin typed in by hand ("pinned"), are not
+ * moved. A pinned room that clashes with another stay, say after the pinned stay's dates were
+ * changed, stays pinned as well; the clash is logged and listed by {@link #pinConflicts()} for
+ * an admin to resolve. After every booking change {@link #reoptimizeFrom(long)} re-runs the pass for the
+ * nights from the change onwards only; bursts of changes are folded into one pass.
+ */
+public class RoomAssigner {
+
+    private static final Logger logger = Logger.getLogger(RoomAssigner.class.getName());
+
+    /** Room number text for a reservation with no rooms assigned yet. */
+    static final String UNASSIGNED = "N/A";
+
+    private static final long NO_PENDING_PASS = Long.MAX_VALUE;
+
+    // Idle gaps longer than this score the same, so an empty room is not preferred over a long gap.
+    private static final long MAX_GAP_DAYS = RoomInventory.HORIZON_DAYS;
+
+    static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS room_assignments (" +
+            "reservation_id INTEGER NOT NULL," +
+            "room_number TEXT NOT NULL," +
+            "pinned INTEGER NOT NULL DEFAULT 0," +
+            "PRIMARY KEY (reservation_id, room_number)" +
+            ") WITHOUT ROWID;";
+    static final String CREATE_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_room_assignments_room_number ON room_assignments(room_number)";
+
+    private static final String HOLDS_ROOMS = "status_code NOT IN (" +
+            ReservationStatus.CHECKED_OUT.getCode() + ", " + ReservationStatus.CANCELLED.getCode() + ")";
+
+    // Every reservation still holding rooms on or after a given day.
+    static final String STAYS_SQL = "SELECT reservation_id, check_in_day, check_out_day, " +
+            "single_rooms, double_rooms, deluxe_rooms, penthouse_rooms FROM reservations " +
+            "WHERE check_out_day > ? AND " + HOLDS_ROOMS;
+
+    // The rooms those reservations have now.
+    static final String CURRENT_ROOMS_SQL = "SELECT a.reservation_id, a.room_number, a.pinned " +
+            "FROM reservations r JOIN room_assignments a ON a.reservation_id = r.reservation_id " +
+            "WHERE r.check_out_day > ? AND r." + HOLDS_ROOMS;
+
+    // Other reservations holding a room on any night of [check_in_day, check_out_day).
+    static final String CONFLICTS_SQL = "SELECT a.reservation_id FROM room_assignments a " +
+            "JOIN reservations r ON r.reservation_id = a.reservation_id " +
+            "WHERE a.room_number = ? AND a.reservation_id <> ? " +
+            "AND r.check_in_day < ? AND r.check_out_day > ? AND r." + HOLDS_ROOMS;
+
+    private static final String STORED_ROOM_NUMBER_SQL = "SELECT room_number FROM reservations WHERE reservation_id = ?";
+    private static final String ROOM_EXISTS_SQL = "SELECT 1 FROM rooms WHERE room_number = ?";
+    private static final String DELETE_SQL = "DELETE FROM room_assignments WHERE reservation_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO room_assignments(reservation_id, room_number, pinned) VALUES(?, ?, ?)";
+    private static final String TYPED_ROOMS_SQL = "SELECT reservation_id, room_number FROM reservations " +
+            "WHERE room_number IS NOT NULL AND room_number <> '" + UNASSIGNED + "'";
+    // Inserts nothing unless the room is registered.
+    private static final String ADOPT_SQL = "INSERT OR IGNORE INTO room_assignments(reservation_id, room_number, pinned) " +
+            "SELECT ?, room_number, 1 FROM rooms WHERE room_number = ?";
+    private static final String UPDATE_ROOM_NUMBER_SQL = "UPDATE reservations SET room_number = ? WHERE reservation_id = ?";
+
+    // Earliest day a queued pass must cover, or NO_PENDING_PASS when none is queued.
+    private static final AtomicLong pendingFromDay = new AtomicLong(NO_PENDING_PASS);
+
+    // A pinned room clashing with another stay, until the pinned stay checks out.
+    private record PinConflict(long checkOutDay, String message) {
+    }
+
+    // Replaced only by passes on the writer thread; read by the admin screens.
+    private static volatile List<PinConflict> pinConflicts = List.of();
+
+    /**
+     * A reservation as the planner sees it: the nights and rooms it needs, and the rooms it has.
+     */
+    static final class Booking {
+        private final int reservationId;
+        private final long checkInDay;
+        private final long checkOutDay;
+        private final int[] rooms;
+        // Rooms that must not move: pinned by an admin, or the stay has already begun.
+        private final Set<String> kept = new LinkedHashSet<>();
+        // Rooms from the previous pass, kept if they still fit.
+        private final Set<String> previous = new LinkedHashSet<>();
+        private final Set<String> pinned = new LinkedHashSet<>();
+        private final Set<String> assigned = new LinkedHashSet<>();
+        // Pinned rooms kept although they are missing or taken on overlapping nights.
+        private final List<String> conflicts = new ArrayList<>();
+
+        Booking(int reservationId, long checkInDay, long checkOutDay, int[] rooms) {
+            this.reservationId = reservationId;
+            this.checkInDay = checkInDay;
+            this.checkOutDay = checkOutDay;
+            this.rooms = rooms;
+        }
+
+        private Set<String> current() {
+            Set<String> current = new LinkedHashSet<>(kept);
+            current.addAll(previous);
+            return current;
+        }
+    }
+
+    /**
+     * Assigns rooms to every stay that checks in within a window, in one pass. Stays that began
+     * before the window or check in after it keep their rooms and are planned around.
+     * @param from The first day of the window.
+     * @param to The day after the last day of the window.
+     * @return How many reservations had their rooms changed.
+     * @throws SQLException If the assignments cannot be read or saved.
+     */
+    public static int assignWindow(LocalDate from, LocalDate to) throws SQLException {
+        int changed = WriteQueue.execute(conn -> assign(conn, from.toEpochDay(), to.toEpochDay()));
+        if (changed > 0) {
+            ReservationCache.clear();
+        }
+        return changed;
+    }
+
+    /**
+     * Queues a re-optimization of every stay checking in on or after the given day (or today,
+     * if later), for after a booking was added, changed or removed. Returns immediately. If a pass
+     * is already queued it is widened to cover the day instead of queueing another.
+     * @param day The first affected night, as an epoch day.
+     */
+    static void reoptimizeFrom(long day) {
+        long from = Math.max(day, LocalDate.now().toEpochDay());
+        if (pendingFromDay.getAndAccumulate(from, Math::min) != NO_PENDING_PASS) {
+            return;
+        }
+        WriteQueue.submit(conn -> assign(conn, pendingFromDay.getAndSet(NO_PENDING_PASS), Long.MAX_VALUE))
+                .whenComplete((changed, error) -> {
+                    if (error != null) {
+                        logger.log(Level.SEVERE, "Room re-assignment failed: " + error.getMessage(), error);
+                    } else if (changed > 0) {
+                        ReservationCache.clear();
+                    }
+                });
+    }
+
+    /**
+     * Lists the pinned rooms that the last assignment passes found missing from the registry or
+     * taken by another stay on overlapping nights. Such rooms are left pinned rather than moved,
+     * so the clash stays until an admin changes one of the reservations.
+     * @return One message per clashing room of a stay that has not checked out yet; empty if none.
+     */
+    public static List<String> pinConflicts() {
+        long today = LocalDate.now().toEpochDay();
+        List<String> messages = new ArrayList<>();
+        for (PinConflict conflict : pinConflicts) {
+            if (conflict.checkOutDay() > today) {
+                messages.add(conflict.message());
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Applies a room number an admin typed for a reservation, inside the transaction that saves it.
+     * Blank or "N/A" hands the reservation back to automatic assignment; anything else is read as
+     * a list of room numbers, which are pinned so later passes never move them. Unchanged text
+     * is left alone.
+     * @param conn The writer connection.
+     * @param reservationId The reservation being saved.
+     * @param details The reservation as it will be saved.
+     * @throws SQLException If a room does not exist or is taken on one of the stay's nights;
+     *                      the message names the room.
+     */
+    static void applyManualRooms(Connection conn, int reservationId, ReservationDetails details) throws SQLException {
+        String typed = details.getRoomNumber() == null ? "" : details.getRoomNumber().trim();
+        try (PreparedStatement pstmt = conn.prepareStatement(STORED_ROOM_NUMBER_SQL)) {
+            pstmt.setInt(1, reservationId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next() && typed.equals(rs.getString(1) == null ? "" : rs.getString(1).trim())) {
+                    return;
+                }
+            }
+        }
+        List<String> roomNumbers = parseRoomNumbers(typed);
+        List<String> problems = findConflicts(conn, reservationId, roomNumbers, details);
+        if (!problems.isEmpty()) {
+            throw new SQLException(problems.get(0));
+        }
+        remove(conn, reservationId);
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (String roomNumber : roomNumbers) {
+                pstmt.setInt(1, reservationId);
+                pstmt.setString(2, roomNumber);
+                pstmt.setInt(3, 1);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Checks room numbers typed for a reservation before saving it.
+     * @param reservationId The reservation being edited.
+     * @param roomNumbers The room number text as typed.
+     * @param details The reservation's dates.
+     * @return One message per room that does not exist or is taken on one of the stay's nights;
+     *         empty if the rooms can be saved.
+     * @throws SQLException If the assignments cannot be read.
+     */
+    public static List<String> findConflicts(int reservationId, String roomNumbers, ReservationDetails details)
+            throws SQLException {
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            return findConflicts(lease.getConnection(), reservationId, parseRoomNumbers(roomNumbers), details);
+        }
+    }
+
+    /**
+     * Drops a reservation's room assignments, inside the transaction that deletes it.
+     */
+    static void remove(Connection conn, int reservationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+            pstmt.setInt(1, reservationId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Turns room numbers already typed into reservations into pinned assignments, wherever they
+     * name a registered room. Run once, when the registry is created.
+     */
+    static void adoptTypedRooms(Connection conn) throws SQLException {
+        int adopted = 0;
+        try (PreparedStatement select = conn.prepareStatement(TYPED_ROOMS_SQL);
+             PreparedStatement insert = conn.prepareStatement(ADOPT_SQL);
+             ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                for (String roomNumber : parseRoomNumbers(rs.getString(2))) {
+                    insert.setInt(1, rs.getInt(1));
+                    insert.setString(2, roomNumber);
+                    adopted += insert.executeUpdate();
+                }
+            }
+        }
+        logger.info("Adopted " + adopted + " room numbers typed into existing reservations.");
+    }
+
+    private static List<String> findConflicts(Connection conn, int reservationId, List<String> roomNumbers,
+                                              ReservationDetails details) throws SQLException {
+        List<String> problems = new ArrayList<>();
+        if (roomNumbers.isEmpty() || details.getCheckInDate() == null || details.getCheckOutDate() == null) {
+            return problems;
+        }
+        try (PreparedStatement exists = conn.prepareStatement(ROOM_EXISTS_SQL);
+             PreparedStatement conflicts = conn.prepareStatement(CONFLICTS_SQL)) {
+            for (String roomNumber : roomNumbers) {
+                exists.setString(1, roomNumber);
+                try (ResultSet rs = exists.executeQuery()) {
+                    if (!rs.next()) {
+                        problems.add("Room " + roomNumber + " does not exist.");
+                        continue;
+                    }
+                }
+                conflicts.setString(1, roomNumber);
+                conflicts.setInt(2, reservationId);
+                conflicts.setLong(3, details.getCheckOutDate().toEpochDay());
+                conflicts.setLong(4, details.getCheckInDate().toEpochDay());
+                try (ResultSet rs = conflicts.executeQuery()) {
+                    if (rs.next()) {
+                        problems.add("Room " + roomNumber + " is already assigned to reservation "
+                                + rs.getInt(1) + " on overlapping nights.");
+                    }
+                }
+            }
+        }
+        return problems;
+    }
+
+    // "N/A" or blank means no rooms; otherwise numbers separated by commas, semicolons or spaces.
+    private static List<String> parseRoomNumbers(String text) {
+        List<String> roomNumbers = new ArrayList<>();
+        if (text == null || text.isBlank() || text.trim().equalsIgnoreCase(UNASSIGNED)) {
+            return roomNumbers;
+        }
+        for (String part : text.trim().split("[,;\\s]+")) {
+            if (!part.isEmpty() && !roomNumbers.contains(part)) {
+                roomNumbers.add(part);
+            }
+        }
+        return roomNumbers;
+    }
+
+    /**
+     * One assignment pass on the writer connection. Reads every stay holding rooms from fromDay
+     * on, plans the ones checking in within [fromDay, toDay) and writes back only the
+     * reservations whose rooms changed.
+     * @return How many reservations had their rooms changed.
+     */
+    static int assign(Connection conn, long fromDay, long toDay) throws SQLException {
+        List<Room> rooms = RoomRegistry.load(conn);
+        Map<Integer, Booking> bookings = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(STAYS_SQL)) {
+            pstmt.setLong(1, fromDay);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int[] counts = new int[RoomType.values().length];
+                    counts[RoomType.SINGLE.ordinal()] = rs.getInt(4);
+                    counts[RoomType.DOUBLE.ordinal()] = rs.getInt(5);
+                    counts[RoomType.DELUXE.ordinal()] = rs.getInt(6);
+                    counts[RoomType.PENTHOUSE.ordinal()] = rs.getInt(7);
+                    Booking booking = new Booking(rs.getInt(1), rs.getLong(2), rs.getLong(3), counts);
+                    bookings.put(booking.reservationId, booking);
+                }
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(CURRENT_ROOMS_SQL)) {
+            pstmt.setLong(1, fromDay);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Booking booking = bookings.get(rs.getInt(1));
+                    String roomNumber = rs.getString(2);
+                    boolean pinned = rs.getInt(3) != 0;
+                    if (pinned) {
+                        booking.pinned.add(roomNumber);
+                    }
+                    boolean outsideWindow = booking.checkInDay < fromDay || booking.checkInDay >= toDay;
+                    (pinned || outsideWindow ? booking.kept : booking.previous).add(roomNumber);
+                }
+            }
+        }
+
+        List<Booking> ordered = new ArrayList<>(bookings.values());
+        int unplaced = plan(rooms, ordered, fromDay, toDay);
+        int changed = save(conn, rooms, ordered);
+        recordPinConflicts(ordered, fromDay);
+        if (unplaced > 0) {
+            logger.warning(unplaced + " booked rooms could not be given a room number; more stays overlap than there are rooms.");
+        }
+        if (changed > 0) {
+            logger.info("Room assignment from epoch day " + fromDay + " changed the rooms of " + changed + " reservations.");
+        }
+        return changed;
+    }
+
+    // Every stay checking out after fromDay was just re-planned, so its old conflicts are replaced.
+    private static void recordPinConflicts(List<Booking> bookings, long fromDay) {
+        List<PinConflict> conflicts = new ArrayList<>();
+        for (PinConflict conflict : pinConflicts) {
+            if (conflict.checkOutDay() <= fromDay) {
+                conflicts.add(conflict);
+            }
+        }
+        for (Booking booking : bookings) {
+            for (String message : booking.conflicts) {
+                conflicts.add(new PinConflict(booking.checkOutDay, message));
+            }
+        }
+        pinConflicts = List.copyOf(conflicts);
+    }
+
+    /**
+     * Fills in {@code assigned} for every booking. Bookings outside [fromDay, toDay) only keep the
+     * rooms they have. Pinned rooms are always kept, even when they clash; the clash is recorded
+     * in the booking's {@code conflicts}.
+     * @return How many booked rooms could not be given a room.
+     */
+    static int plan(List<Room> rooms, List<Booking> bookings, long fromDay, long toDay) {
+        Map<String, Room> byNumber = new HashMap<>();
+        Map<RoomType, List<Room>> byType = new HashMap<>();
+        Map<String, TreeMap<Long, Long>> occupied = new HashMap<>();
+        for (Room room : rooms) {
+            byNumber.put(room.number(), room);
+            byType.computeIfAbsent(room.type(), type -> new ArrayList<>()).add(room);
+            occupied.put(room.number(), new TreeMap<>());
+        }
+
+        // Fixed rooms go in first so everything else is planned around them.
+        for (Booking booking : bookings) {
+            for (String roomNumber : booking.kept) {
+                TreeMap<Long, Long> nights = occupied.get(roomNumber);
+                if (nights != null && fits(nights, booking.checkInDay, booking.checkOutDay)) {
+                    nights.put(booking.checkInDay, booking.checkOutDay);
+                    booking.assigned.add(roomNumber);
+                } else if (booking.pinned.contains(roomNumber)) {
+                    // Moving a pin would silently undo an admin's choice; keep it and report the clash.
+                    String message = "Reservation " + booking.reservationId + " is pinned to room " + roomNumber
+                            + (nights == null ? ", which does not exist." : ", which is taken on overlapping nights.");
+                    logger.warning(message);
+                    booking.conflicts.add(message);
+                    if (nights != null) {
+                        occupyFreeNights(nights, booking.checkInDay, booking.checkOutDay);
+                    }
+                    booking.assigned.add(roomNumber);
+                } else {
+                    logger.warning("Reservation " + booking.reservationId + " cannot keep room " + roomNumber
+                            + "; it does not exist or is taken on overlapping nights.");
+                }
+            }
+        }
+
+        bookings.sort(Comparator.comparingLong((Booking booking) -> booking.checkInDay)
+                .thenComparingLong(booking -> booking.checkInDay - booking.checkOutDay)
+                .thenComparingInt(booking -> booking.reservationId));
+        int unplaced = 0;
+        for (Booking booking : bookings) {
+            if (booking.checkInDay < fromDay || booking.checkInDay >= toDay || booking.checkOutDay <= booking.checkInDay) {
+                continue;
+            }
+            for (RoomType type : RoomType.values()) {
+                int needed = booking.rooms[type.ordinal()];
+                for (String roomNumber : booking.assigned) {
+                    Room room = byNumber.get(roomNumber);
+                    if (room != null && room.type() == type) {
+                        needed--;
+                    }
+                }
+                for (String roomNumber : booking.previous) {
+                    Room room = byNumber.get(roomNumber);
+                    if (needed > 0 && room != null && room.type() == type
+                            && fits(occupied.get(roomNumber), booking.checkInDay, booking.checkOutDay)) {
+                        occupied.get(roomNumber).put(booking.checkInDay, booking.checkOutDay);
+                        booking.assigned.add(roomNumber);
+                        needed--;
+                    }
+                }
+                for (; needed > 0; needed--) {
+                    Room best = bestFit(byType.getOrDefault(type, List.of()), occupied, booking);
+                    if (best == null) {
+                        unplaced += needed;
+                        break;
+                    }
+                    occupied.get(best.number()).put(booking.checkInDay, booking.checkOutDay);
+                    booking.assigned.add(best.number());
+                }
+            }
+        }
+        return unplaced;
+    }
+
+    // The free room of the type leaving the smallest idle gaps around the stay; ties go to the lower floor and number.
+    private static Room bestFit(List<Room> candidates, Map<String, TreeMap<Long, Long>> occupied, Booking booking) {
+        Room best = null;
+        long bestGap = Long.MAX_VALUE;
+        for (Room room : candidates) {
+            TreeMap<Long, Long> nights = occupied.get(room.number());
+            if (!fits(nights, booking.checkInDay, booking.checkOutDay)) {
+                continue;
+            }
+            Map.Entry<Long, Long> before = nights.floorEntry(booking.checkInDay);
+            Map.Entry<Long, Long> after = nights.ceilingEntry(booking.checkOutDay);
+            long gap = (before == null ? MAX_GAP_DAYS : Math.min(MAX_GAP_DAYS, booking.checkInDay - before.getValue()))
+                    + (after == null ? MAX_GAP_DAYS : Math.min(MAX_GAP_DAYS, after.getKey() - booking.checkOutDay));
+            if (gap < bestGap) {
+                best = room;
+                bestGap = gap;
+            }
+        }
+        return best;
+    }
+
+    // Stays in a room never overlap, so only the latest one starting before checkOutDay can reach into [checkInDay, checkOutDay).
+    private static boolean fits(TreeMap<Long, Long> nights, long checkInDay, long checkOutDay) {
+        Map.Entry<Long, Long> latest = nights.lowerEntry(checkOutDay);
+        return latest == null || latest.getValue() <= checkInDay;
+    }
+
+    // Marks the nights of [checkInDay, checkOutDay) that no stay holds yet, so no other stay is placed on them.
+    private static void occupyFreeNights(TreeMap<Long, Long> nights, long checkInDay, long checkOutDay) {
+        long day = checkInDay;
+        Map.Entry<Long, Long> before = nights.floorEntry(day);
+        if (before != null && before.getValue() > day) {
+            day = before.getValue();
+        }
+        while (day < checkOutDay) {
+            Map.Entry<Long, Long> next = nights.ceilingEntry(day);
+            long end = next == null ? checkOutDay : Math.min(checkOutDay, next.getKey());
+            if (end > day) {
+                nights.put(day, end);
+            }
+            if (next == null) {
+                break;
+            }
+            day = Math.max(end, next.getValue());
+        }
+    }
+
+    // Rewrites the assignment rows and room_number text of every booking whose rooms changed.
+    private static int save(Connection conn, List<Room> rooms, List<Booking> bookings) throws SQLException {
+        Map<String, Integer> order = new HashMap<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            order.put(rooms.get(i).number(), i);
+        }
+        int changed = 0;
+        try (PreparedStatement delete = conn.prepareStatement(DELETE_SQL);
+             PreparedStatement insert = conn.prepareStatement(INSERT_SQL);
+             PreparedStatement update = conn.prepareStatement(UPDATE_ROOM_NUMBER_SQL)) {
+            for (Booking booking : bookings) {
+                if (booking.assigned.equals(booking.current())) {
+                    continue;
+                }
+                delete.setInt(1, booking.reservationId);
+                delete.executeUpdate();
+                List<String> roomNumbers = new ArrayList<>(booking.assigned);
+                roomNumbers.sort(Comparator.comparingInt(number -> order.getOrDefault(number, Integer.MAX_VALUE)));
+                for (String roomNumber : roomNumbers) {
+                    insert.setInt(1, booking.reservationId);
+                    insert.setString(2, roomNumber);
+                    insert.setInt(3, booking.pinned.contains(roomNumber) ? 1 : 0);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                update.setString(1, roomNumbers.isEmpty() ? UNASSIGNED : String.join(", ", roomNumbers));
+                update.setInt(2, booking.reservationId);
+                update.executeUpdate();
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
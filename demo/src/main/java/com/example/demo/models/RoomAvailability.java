@@ -0,0 +1,20 @@
+package com.example.demo.models;
+
+/**
+ * How easy it is to get a room of one type on one night. {@link RoomInventory} keeps one of these
+ * per type per night, packed into its availability bitmap by ordinal, so the order is fixed.
+ */
+public enum RoomAvailability {
+
+    AVAILABLE,
+    /** A quarter of the rooms or fewer are left. */
+    LIMITED,
+    SOLD_OUT;
+
+    static RoomAvailability of(int free, int capacity) {
+        if (free <= 0) {
+            return SOLD_OUT;
+        }
+        return free * 4 <= capacity ? LIMITED : AVAILABLE;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.models;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Short-lived leases on rooms while a kiosk guest finishes booking. Selecting rooms places a hold
+ * that takes them out of {@link RoomInventory} straight away, so another kiosk cannot sell them
+ * while this guest is typing their details. Each step forward in the booking flow extends the
+ * hold, confirming the booking converts it into the reservation, and a guest who walks away
+ * simply lets it run out: {@link #HOLD_TTL_SECONDS} after the last extension the rooms are freed.
+ * <p>
+ * Holds only live in memory, like the inventory they lease from; a restart drops them together
+ * with the kiosk sessions they belonged to. Expiry runs on a {@link TimerWheel}, so outstanding
+ * holds cost nothing until their own tick comes round.
+ */
+public class RoomHolds {
+
+    private static final Logger logger = Logger.getLogger(RoomHolds.class.getName());
+
+    /** How long a hold lasts after it is placed or last extended. */
+    static final long HOLD_TTL_SECONDS = 3 * 60;
+
+    // One-second ticks; 512 slots cover well over one TTL per revolution.
+    private static final TimerWheel EXPIRY = new TimerWheel("room-hold-expiry", 1, TimeUnit.SECONDS, 512);
+
+    private static final Map<String, Hold> HOLDS = new ConcurrentHashMap<>();
+
+    private static final class Hold {
+        private final String id;
+        private final RoomInventory.Stay stay;
+        private volatile TimerWheel.Timeout expiry;
+
+        private Hold(String id, RoomInventory.Stay stay) {
+            this.id = id;
+            this.stay = stay;
+        }
+    }
+
+    /**
+     * Takes the rooms of a reservation out of the inventory for {@link #HOLD_TTL_SECONDS}.
+     * @param details The dates and rooms the guest selected.
+     * @return The hold ID to extend, release or claim later, or null if the rooms are not all free
+     *         (or the reservation books no rooms).
+     */
+    public static String place(ReservationDetails details) {
+        RoomInventory.Stay stay = RoomInventory.stayOf(details);
+        if (stay == null || !RoomInventory.tryReserve(stay)) {
+            return null;
+        }
+        Hold hold = new Hold(UUID.randomUUID().toString(), stay);
+        HOLDS.put(hold.id, hold);
+        hold.expiry = EXPIRY.schedule(() -> expire(hold), HOLD_TTL_SECONDS, TimeUnit.SECONDS);
+        return hold.id;
+    }
+
+    /**
+     * Restarts a hold's time to live. Does nothing if the hold is unknown or has already expired.
+     * @param holdId The hold ID, may be null.
+     * @return true if the hold is still active.
+     */
+    public static boolean extend(String holdId) {
+        Hold hold = holdId == null ? null : HOLDS.get(holdId);
+        if (hold == null) {
+            return false;
+        }
+        hold.expiry.cancel();
+        hold.expiry = EXPIRY.schedule(() -> expire(hold), HOLD_TTL_SECONDS, TimeUnit.SECONDS);
+        // The old expiry may have fired in the meantime; the new one is then a no-op.
+        return HOLDS.get(holdId) == hold;
+    }
+
+    /**
+     * Gives the held rooms back, for a guest who goes back to change their selection.
+     * Does nothing if the hold is unknown or has already expired.
+     * @param holdId The hold ID, may be null.
+     */
+    public static void release(String holdId) {
+        Hold hold = holdId == null ? null : HOLDS.remove(holdId);
+        if (hold != null) {
+            hold.expiry.cancel();
+            RoomInventory.release(hold.stay);
+        }
+    }
+
+    /**
+     * Ends a hold without giving its rooms back, so the booking being saved can take them over.
+     * @param holdId The hold ID, may be null.
+     * @return The rooms the hold had claimed, or null if it is unknown or has already expired.
+     */
+    static RoomInventory.Stay claim(String holdId) {
+        Hold hold = holdId == null ? null : HOLDS.remove(holdId);
+        if (hold == null) {
+            return null;
+        }
+        hold.expiry.cancel();
+        return hold.stay;
+    }
+
+    /**
+     * @return How many holds are currently active.
+     */
+    public static int activeCount() {
+        return HOLDS.size();
+    }
+
+    /**
+     * Stops the expiry thread. Called when the application shuts down.
+     */
+    public static void shutdown() {
+        EXPIRY.stop();
+    }
+
+    // Only the hold's own removal releases rooms, so an expiry racing a claim or release is harmless.
+    private static void expire(Hold hold) {
+        if (HOLDS.remove(hold.id, hold)) {
+            RoomInventory.release(hold.stay);
+            logger.info("Room hold " + hold.id + " expired; its rooms are available again.");
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory occupancy calendar: for every room type and every night from the day it was built
+ * until {@link #HORIZON_DAYS} later, how many rooms are booked. It is rebuilt from the
+ * reservations table at startup and kept current by {@link DatabaseManager} after each committed
+ * insert, update, delete and checkout, so availability checks never touch the database.
+ * Counters are atomic; readers never block.
+ * <p>
+ * Booking goes through {@link #tryReserve(Stay)}, which checks and claims every night of a stay
+ * while holding the lock stripes of those nights only. Two kiosks racing for the last room on
+ * the same night are serialized and exactly one wins; bookings on different nights never wait
+ * for each other. Releasing rooms only ever makes room, so it takes no locks.
+ * <p>
+ * Alongside the counts the calendar keeps an availability bitmap: for every night, the
+ * {@link RoomAvailability} level of each room type packed into one int. Every count change
+ * refreshes the level of the night and type it touched, so a date picker can shade a month
+ * with one array read per day.
+ */
+public class RoomInventory {
+
+    private static final Logger logger = Logger.getLogger(RoomInventory.class.getName());
+
+    /** Nights tracked from the day the calendar was built. Stays reaching further out have no availability. */
+    static final int HORIZON_DAYS = 2 * 366;
+
+    private static final RoomType[] TYPES = RoomType.values();
+
+    // Bits per room type in a night's packed availability levels.
+    static final int LEVEL_BITS = 2;
+    static final int LEVEL_MASK = (1 << LEVEL_BITS) - 1;
+
+    // Night n is guarded by NIGHT_LOCKS[n % LOCK_STRIPES]; n is the epoch day, so stripes never move.
+    private static final int LOCK_STRIPES = 64;
+    private static final ReentrantLock[] NIGHT_LOCKS = new ReentrantLock[LOCK_STRIPES];
+
+    // Bumped after every change to the counts, so a reader can tell whether an answer it kept is still current.
+    private static final AtomicLong CHANGES = new AtomicLong();
+
+    static {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            NIGHT_LOCKS[i] = new ReentrantLock();
+        }
+    }
+
+    // Every reservation still holding rooms on or after a given day.
+    static final String HOLDING_ROOMS_SQL = "SELECT check_in_day, check_out_day, " +
+            "single_rooms, double_rooms, deluxe_rooms, penthouse_rooms FROM reservations " +
+            "WHERE check_out_day > ? AND status_code NOT IN (" +
+            ReservationStatus.CHECKED_OUT.getCode() + ", " + ReservationStatus.CANCELLED.getCode() + ")";
+
+    private static final String STAY_BY_ID_SQL = "SELECT check_in_day, check_out_day, " +
+            "single_rooms, double_rooms, deluxe_rooms, penthouse_rooms, status_code FROM reservations " +
+            "WHERE reservation_id = ?";
+
+    /**
+     * The rooms one reservation occupies: {@code rooms[type.ordinal()]} rooms of each type,
+     * every night from checkInDay up to but not including checkOutDay (both epoch days).
+     */
+    record Stay(long checkInDay, long checkOutDay, int[] rooms) {
+
+        /**
+         * @return The part of this stay from the given day on.
+         */
+        Stay from(long day) {
+            return new Stay(Math.max(checkInDay, day), checkOutDay, rooms);
+        }
+
+        /**
+         * @return true if the other stay covers the same nights with the same rooms.
+         */
+        boolean sameAs(Stay other) {
+            return other != null && checkInDay == other.checkInDay && checkOutDay == other.checkOutDay
+                    && Arrays.equals(rooms, other.rooms);
+        }
+    }
+
+    private static final class Calendar {
+        private final long firstDay;
+        private final int[] capacity = new int[TYPES.length];
+        private final AtomicIntegerArray[] booked = new AtomicIntegerArray[TYPES.length];
+        private final AtomicIntegerArray levels = new AtomicIntegerArray(HORIZON_DAYS);
+
+        private Calendar(long firstDay) {
+            this.firstDay = firstDay;
+            int emptyNight = 0;
+            for (RoomType type : TYPES) {
+                capacity[type.ordinal()] = type.configuredCount();
+                booked[type.ordinal()] = new AtomicIntegerArray(HORIZON_DAYS);
+                RoomAvailability level = RoomAvailability.of(capacity[type.ordinal()], capacity[type.ordinal()]);
+                emptyNight |= level.ordinal() << (type.ordinal() * LEVEL_BITS);
+            }
+            for (int night = 0; night < HORIZON_DAYS; night++) {
+                levels.set(night, emptyNight);
+            }
+        }
+
+        private void add(Stay stay, int sign) {
+            int from = (int) Math.max(0, stay.checkInDay() - firstDay);
+            int to = (int) Math.min(HORIZON_DAYS, stay.checkOutDay() - firstDay);
+            for (RoomType type : TYPES) {
+                int rooms = stay.rooms()[type.ordinal()];
+                if (rooms == 0) {
+                    continue;
+                }
+                AtomicIntegerArray nights = booked[type.ordinal()];
+                for (int night = from; night < to; night++) {
+                    nights.addAndGet(night, sign * rooms);
+                    refreshLevel(type, night);
+                }
+            }
+            CHANGES.incrementAndGet();
+        }
+
+        private int available(RoomType type, long checkInDay, long checkOutDay) {
+            long from = Math.max(checkInDay, firstDay) - firstDay;
+            long to = checkOutDay - firstDay;
+            if (to > HORIZON_DAYS) {
+                return 0;
+            }
+            AtomicIntegerArray nights = booked[type.ordinal()];
+            int mostBooked = 0;
+            for (int night = (int) from; night < to; night++) {
+                mostBooked = Math.max(mostBooked, nights.get(night));
+            }
+            return Math.max(0, capacity[type.ordinal()] - mostBooked);
+        }
+
+        // Re-derives one type's level on one night from its current count. A refresh that loses the
+        // CAS to another change of the same night retries, so the last one standing reads the latest count.
+        private void refreshLevel(RoomType type, int night) {
+            int shift = type.ordinal() * LEVEL_BITS;
+            while (true) {
+                int packed = levels.get(night);
+                int free = capacity[type.ordinal()] - booked[type.ordinal()].get(night);
+                int level = RoomAvailability.of(free, capacity[type.ordinal()]).ordinal();
+                int updated = (packed & ~(LEVEL_MASK << shift)) | (level << shift);
+                if (updated == packed || levels.compareAndSet(night, packed, updated)) {
+                    return;
+                }
+            }
+        }
+
+        private NightAvailability nightAvailability(long day) {
+            long night = day - firstDay;
+            if (night < 0 || night >= HORIZON_DAYS) {
+                return NightAvailability.SOLD_OUT;
+            }
+            return new NightAvailability(levels.get((int) night));
+        }
+
+        // Free rooms of a type on each night from firstNight on; nights past the horizon have none.
+        private int[] freeByNight(RoomType type, long firstNight, int nights) {
+            int[] free = new int[nights];
+            AtomicIntegerArray counts = booked[type.ordinal()];
+            for (int i = 0; i < nights; i++) {
+                long night = firstNight + i - firstDay;
+                free[i] = night < 0 || night >= HORIZON_DAYS ? 0 : capacity[type.ordinal()] - counts.get((int) night);
+            }
+            return free;
+        }
+
+        private boolean fits(Stay stay) {
+            for (RoomType type : TYPES) {
+                int rooms = stay.rooms()[type.ordinal()];
+                if (rooms > 0 && available(type, stay.checkInDay(), stay.checkOutDay()) < rooms) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Empty until rebuild() runs; replaced as a whole so readers never see a half-built calendar.
+    private static volatile Calendar calendar = new Calendar(LocalDate.now().toEpochDay());
+
+    /**
+     * Rebuilds the calendar from every reservation that still holds rooms. Called once at startup.
+     * @throws SQLException If the reservations cannot be read.
+     */
+    public static void rebuild() throws SQLException {
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            rebuild(lease.getConnection());
+        }
+    }
+
+    static void rebuild(Connection conn) throws SQLException {
+        Calendar rebuilt = new Calendar(LocalDate.now().toEpochDay());
+        int stays = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(HOLDING_ROOMS_SQL)) {
+            pstmt.setLong(1, rebuilt.firstDay);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rebuilt.add(readStay(rs), 1);
+                    stays++;
+                }
+            }
+        }
+        calendar = rebuilt;
+        CHANGES.incrementAndGet();
+        logger.info("Room inventory rebuilt from " + stays + " current reservations.");
+    }
+
+    /**
+     * @param type The room type.
+     * @param checkIn The first night.
+     * @param checkOut The day of departure; that night is not included.
+     * @return How many rooms of the type are free on every night of the stay, or 0 if the stay
+     *         reaches past the booking horizon.
+     */
+    public static int available(RoomType type, LocalDate checkIn, LocalDate checkOut) {
+        return calendar.available(type, checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /**
+     * @param checkIn The first night.
+     * @param checkOut The day of departure; that night is not included.
+     * @return The number of free rooms of each type for the whole stay.
+     */
+    public static Map<RoomType, Integer> availability(LocalDate checkIn, LocalDate checkOut) {
+        Map<RoomType, Integer> free = new EnumMap<>(RoomType.class);
+        Calendar current = calendar;
+        for (RoomType type : TYPES) {
+            free.put(type, current.available(type, checkIn.toEpochDay(), checkOut.toEpochDay()));
+        }
+        return free;
+    }
+
+    /**
+     * @return A counter that moves on whenever any room count changes. If it reads the same before
+     *         and after an availability check, the answer is still current.
+     */
+    public static long changeCount() {
+        return CHANGES.get();
+    }
+
+    /**
+     * Reads one night from the availability bitmap. Never touches the database.
+     * @param night The night, by the date it starts.
+     * @return The availability of each room type that night; sold out for nights in the past or
+     *         past the booking horizon.
+     */
+    public static NightAvailability nightAvailability(LocalDate night) {
+        return calendar.nightAvailability(night.toEpochDay());
+    }
+
+    /**
+     * Finds the earliest check-in dates on which a stay of the given length has the requested
+     * rooms free on every night, such as "the next weekends with two deluxe rooms for two nights".
+     * Free rooms per night are read once from the calendar; the candidate check-in dates are then
+     * tested in parallel, each against its own window of nights, and the earliest matches kept.
+     * @param rooms How many rooms of each type are needed; missing types need none.
+     * @param nights The length of the stay.
+     * @param from The first check-in date to consider.
+     * @param days How many consecutive check-in dates to consider.
+     * @param checkInDays The weekdays the stay may start on, or an empty set for any day.
+     * @param limit The most dates to return.
+     * @return Up to limit matching check-in dates, earliest first.
+     */
+    public static List<LocalDate> findCheckInDates(Map<RoomType, Integer> rooms, int nights, LocalDate from,
+                                                   int days, Set<DayOfWeek> checkInDays, int limit) {
+        if (nights <= 0 || days <= 0 || limit <= 0) {
+            return List.of();
+        }
+        Calendar current = calendar;
+        long firstNight = from.toEpochDay();
+        int[][] free = new int[TYPES.length][];
+        int[] needed = new int[TYPES.length];
+        for (RoomType type : TYPES) {
+            needed[type.ordinal()] = rooms.getOrDefault(type, 0);
+            if (needed[type.ordinal()] > 0) {
+                free[type.ordinal()] = current.freeByNight(type, firstNight, days + nights - 1);
+            }
+        }
+        return IntStream.range(0, days).parallel()
+                .filter(offset -> checkInDays.isEmpty() || checkInDays.contains(from.plusDays(offset).getDayOfWeek()))
+                .filter(offset -> windowFits(free, needed, offset, nights))
+                .limit(limit)
+                .mapToObj(from::plusDays)
+                .toList();
+    }
+
+    private static boolean windowFits(int[][] free, int[] needed, int offset, int nights) {
+        for (int type = 0; type < needed.length; type++) {
+            if (needed[type] == 0) {
+                continue;
+            }
+            for (int night = offset; night < offset + nights; night++) {
+                if (free[type][night] < needed[type]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param type The room type.
+     * @return How many rooms of the type the hotel has.
+     */
+    public static int capacity(RoomType type) {
+        return calendar.capacity[type.ordinal()];
+    }
+
+    /**
+     * Returns the stay a reservation occupies, or null if it occupies nothing: it has no dates
+     * or its status no longer holds rooms.
+     */
+    static Stay stayOf(ReservationDetails details) {
+        if (details.getCheckInDate() == null || details.getCheckOutDate() == null
+                || !ReservationStatus.fromCode(ReservationStatus.codeOf(details.getStatus())).holdsRooms()) {
+            return null;
+        }
+        int[] rooms = new int[TYPES.length];
+        for (RoomType type : TYPES) {
+            rooms[type.ordinal()] = type.countIn(details);
+        }
+        return new Stay(details.getCheckInDate().toEpochDay(), details.getCheckOutDate().toEpochDay(), rooms);
+    }
+
+    /**
+     * Reads the stay a stored reservation occupies, for releasing it after the reservation changes.
+     * Run it on the writer connection before the change, inside the same transaction.
+     * @return The stay, or null if the reservation does not exist or holds no rooms.
+     */
+    static Stay readStay(Connection conn, int reservationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(STAY_BY_ID_SQL)) {
+            pstmt.setInt(1, reservationId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next() && ReservationStatus.fromCode(rs.getInt(7)).holdsRooms()) {
+                    return readStay(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Claims every night of a stay if, and only if, all its rooms are free on all of them.
+     * The check and the claim happen under the locks of the stay's nights, so no other booking
+     * for those nights can slip in between.
+     * @param stay The stay to claim.
+     * @return true if the rooms were claimed; release them if the booking is not saved after all.
+     */
+    static boolean tryReserve(Stay stay) {
+        List<ReentrantLock> locks = lockNights(stay);
+        try {
+            Calendar current = calendar;
+            if (!current.fits(stay)) {
+                return false;
+            }
+            current.add(stay, 1);
+            return true;
+        } finally {
+            for (ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Books a committed stay into the calendar without checking availability, for changes that
+     * are already saved, such as an admin editing a reservation. Does nothing for null.
+     */
+    static void reserve(Stay stay) {
+        if (stay == null) {
+            return;
+        }
+        List<ReentrantLock> locks = lockNights(stay);
+        try {
+            calendar.add(stay, 1);
+        } finally {
+            for (ReentrantLock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Frees a stay that was deleted, changed or checked out. Does nothing for null.
+     */
+    static void release(Stay stay) {
+        if (stay != null) {
+            calendar.add(stay, -1);
+        }
+    }
+
+    // Locks the stripes covering the stay's nights, always in stripe order so two stays can never deadlock.
+    private static List<ReentrantLock> lockNights(Stay stay) {
+        boolean[] needed = new boolean[LOCK_STRIPES];
+        long lastNight = Math.min(stay.checkOutDay(), stay.checkInDay() + LOCK_STRIPES);
+        for (long night = stay.checkInDay(); night < lastNight; night++) {
+            needed[(int) Math.floorMod(night, (long) LOCK_STRIPES)] = true;
+        }
+        List<ReentrantLock> locks = new ArrayList<>();
+        for (int stripe = 0; stripe < LOCK_STRIPES; stripe++) {
+            if (needed[stripe]) {
+                NIGHT_LOCKS[stripe].lock();
+                locks.add(NIGHT_LOCKS[stripe]);
+            }
+        }
+        return locks;
+    }
+
+    // Reads check_in_day, check_out_day and the four room counts from the first six columns.
+    private static Stay readStay(ResultSet rs) throws SQLException {
+        int[] rooms = new int[TYPES.length];
+        rooms[RoomType.SINGLE.ordinal()] = rs.getInt(3);
+        rooms[RoomType.DOUBLE.ordinal()] = rs.getInt(4);
+        rooms[RoomType.DELUXE.ordinal()] = rs.getInt(5);
+        rooms[RoomType.PENTHOUSE.ordinal()] = rs.getInt(6);
+        return new Stay(rs.getLong(1), rs.getLong(2), rooms);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.demo.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Suggests room mixes for a party, so kiosk guests do not have to find one that fits by trial
+ * and error.
+ * <p>
+ * A table built once at startup lists, for every party size the kiosk allows, each room mix that
+ * sleeps the party with no room to spare: taking away any one room would leave someone without
+ * a bed. The cheapest and the fewest-room mix for a stay are always among these, because
+ * dropping a spare room never costs more and a subset of a bookable mix is bookable too. A
+ * recommendation is then a table lookup, a filter against the free rooms from
+ * {@link RoomInventory}, and a price from {@link PricingEngine} for each survivor.
+ */
+public class RoomMixRecommender {
+
+    /** Most rooms of one type a single kiosk booking may take. */
+    public static final int MAX_ROOMS_PER_TYPE = 10;
+    public static final int MAX_ADULTS = 10;
+    public static final int MAX_CHILDREN = 10;
+
+    private static final RoomType[] TYPES = RoomType.values();
+
+    // Mixes are packed into an int, COUNT_BITS per room type in ordinal order.
+    private static final int COUNT_BITS = 4;
+    private static final int COUNT_MASK = (1 << COUNT_BITS) - 1;
+
+    // MINIMAL_MIXES[adults][children] holds the packed mixes that sleep exactly that party with no room to spare.
+    private static final int[][][] MINIMAL_MIXES = buildTable();
+
+    /**
+     * A suggested room mix and what it costs for the stay.
+     * @param rooms How many rooms of each type.
+     * @param roomCount The total number of rooms.
+     * @param roomCharges The room charges for the stay, before tax.
+     */
+    public record Suggestion(Map<RoomType, Integer> rooms, int roomCount, Money roomCharges) {
+
+        /**
+         * @return The mix in words, such as "1 Double, 1 Penthouse".
+         */
+        public String describe() {
+            StringJoiner text = new StringJoiner(", ");
+            for (Map.Entry<RoomType, Integer> entry : rooms.entrySet()) {
+                if (entry.getValue() > 0) {
+                    text.add(entry.getValue() + " " + entry.getKey().getLabel());
+                }
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * Finds the cheapest room mix for a party and, if it needs more rooms than necessary, the
+     * mix with the fewest rooms. Both fit the party and are free on every night of the stay.
+     * @param adults The number of adults.
+     * @param children The number of children.
+     * @param checkIn The first night.
+     * @param checkOut The day of departure.
+     * @return The cheapest mix first, then the fewest-room mix if it is a different one; empty if
+     *         no mix of free rooms sleeps the party, or the party is outside what the kiosk books.
+     */
+    public static List<Suggestion> recommend(int adults, int children, LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            return List.of();
+        }
+        return recommend(adults, children, checkIn, checkOut, RoomInventory.availability(checkIn, checkOut));
+    }
+
+    /**
+     * As {@link #recommend(int, int, LocalDate, LocalDate)}, for a caller that has already read
+     * the free rooms for the stay.
+     * @param free The free rooms of each type on every night of the stay.
+     */
+    public static List<Suggestion> recommend(int adults, int children, LocalDate checkIn, LocalDate checkOut,
+                                             Map<RoomType, Integer> free) {
+        if (adults < 1 || adults > MAX_ADULTS || children < 0 || children > MAX_CHILDREN
+                || checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            return List.of();
+        }
+
+        int[] limit = new int[TYPES.length];
+        long[] stayCents = new long[TYPES.length];
+        for (RoomType type : TYPES) {
+            limit[type.ordinal()] = Math.min(MAX_ROOMS_PER_TYPE, free.get(type));
+            stayCents[type.ordinal()] = PricingEngine.roomCharges(type, checkIn, checkOut).cents();
+        }
+
+        int cheapest = -1;
+        long cheapestCents = 0;
+        int cheapestRooms = 0;
+        int fewest = -1;
+        long fewestCents = 0;
+        int fewestRooms = 0;
+        for (int mix : MINIMAL_MIXES[adults][children]) {
+            long cents = 0;
+            int rooms = 0;
+            boolean bookable = true;
+            for (int t = 0; t < TYPES.length && bookable; t++) {
+                int count = count(mix, t);
+                bookable = count <= limit[t];
+                cents += count * stayCents[t];
+                rooms += count;
+            }
+            if (!bookable) {
+                continue;
+            }
+            if (cheapest < 0 || cents < cheapestCents || (cents == cheapestCents && rooms < cheapestRooms)) {
+                cheapest = mix;
+                cheapestCents = cents;
+                cheapestRooms = rooms;
+            }
+            if (fewest < 0 || rooms < fewestRooms || (rooms == fewestRooms && cents < fewestCents)) {
+                fewest = mix;
+                fewestCents = cents;
+                fewestRooms = rooms;
+            }
+        }
+
+        if (cheapest < 0) {
+            return List.of();
+        }
+        List<Suggestion> suggestions = new ArrayList<>(2);
+        suggestions.add(suggestion(cheapest, cheapestRooms, cheapestCents));
+        if (fewest != cheapest) {
+            suggestions.add(suggestion(fewest, fewestRooms, fewestCents));
+        }
+        return suggestions;
+    }
+
+    /**
+     * @param adults The number of adults.
+     * @param children The number of children.
+     * @param rooms How many rooms of each type; missing types count as none.
+     * @return Whether the rooms sleep the party.
+     */
+    public static boolean fits(int adults, int children, Map<RoomType, Integer> rooms) {
+        int adultCapacity = 0;
+        int childCapacity = 0;
+        for (RoomType type : TYPES) {
+            int count = rooms.getOrDefault(type, 0);
+            adultCapacity += count * type.getAdultCapacity();
+            childCapacity += count * type.getChildCapacity();
+        }
+        return adults <= adultCapacity && children <= childCapacity;
+    }
+
+    private static Suggestion suggestion(int mix, int roomCount, long cents) {
+        Map<RoomType, Integer> rooms = new EnumMap<>(RoomType.class);
+        for (RoomType type : TYPES) {
+            rooms.put(type, count(mix, type.ordinal()));
+        }
+        return new Suggestion(Collections.unmodifiableMap(rooms), roomCount, Money.ofCents(cents));
+    }
+
+    private static int count(int mix, int typeOrdinal) {
+        return (mix >>> (typeOrdinal * COUNT_BITS)) & COUNT_MASK;
+    }
+
+    private static int[][][] buildTable() {
+        List<List<List<Integer>>> cells = new ArrayList<>();
+        for (int a = 0; a <= MAX_ADULTS; a++) {
+            List<List<Integer>> row = new ArrayList<>();
+            for (int c = 0; c <= MAX_CHILDREN; c++) {
+                row.add(new ArrayList<>());
+            }
+            cells.add(row);
+        }
+
+        int[] counts = new int[TYPES.length];
+        int mixes = (int) Math.pow(MAX_ROOMS_PER_TYPE + 1, TYPES.length);
+        for (int i = 0; i < mixes; i++) {
+            int packed = 0;
+            int adultCapacity = 0;
+            int childCapacity = 0;
+            int digits = i;
+            for (RoomType type : TYPES) {
+                int count = digits % (MAX_ROOMS_PER_TYPE + 1);
+                digits /= MAX_ROOMS_PER_TYPE + 1;
+                counts[type.ordinal()] = count;
+                packed |= count << (type.ordinal() * COUNT_BITS);
+                adultCapacity += count * type.getAdultCapacity();
+                childCapacity += count * type.getChildCapacity();
+            }
+
+            // The mix has no room to spare for a party if removing any one of its rooms leaves it too small.
+            for (int a = 0; a <= Math.min(adultCapacity, MAX_ADULTS); a++) {
+                for (int c = 0; c <= Math.min(childCapacity, MAX_CHILDREN); c++) {
+                    boolean minimal = true;
+                    for (RoomType type : TYPES) {
+                        if (counts[type.ordinal()] > 0
+                                && adultCapacity - type.getAdultCapacity() >= a
+                                && childCapacity - type.getChildCapacity() >= c) {
+                            minimal = false;
+                            break;
+                        }
+                    }
+                    if (minimal) {
+                        cells.get(a).get(c).add(packed);
+                    }
+                }
+            }
+        }
+
+        int[][][] table = new int[MAX_ADULTS + 1][MAX_CHILDREN + 1][];
+        for (int a = 0; a <= MAX_ADULTS; a++) {
+            for (int c = 0; c <= MAX_CHILDREN; c++) {
+                table[a][c] = cells.get(a).get(c).stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+        return table;
+    }
+}
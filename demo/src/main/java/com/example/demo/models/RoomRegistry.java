@@ -0,0 +1,136 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Maintains the 'rooms' table: every physical room the hotel has, with its number, type and floor.
+ * The table is seeded once from the {@link RoomType} counts, numbering rooms by floor
+ * (101, 102, ... then 201, ...) with each room type starting on a new floor. At every startup it
+ * is topped up to the configured counts, which {@link RoomInventory} sells against, so every room
+ * the inventory can sell has a number for {@link RoomAssigner} to give out.
+ */
+public class RoomRegistry {
+
+    private static final Logger logger = Logger.getLogger(RoomRegistry.class.getName());
+
+    // Seeded floors hold at most this many rooms, so numbers stay floor * 100 + 1..ROOMS_PER_FLOOR.
+    private static final int ROOMS_PER_FLOOR = 50;
+
+    static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS rooms (" +
+            "room_number TEXT PRIMARY KEY," +
+            "room_type TEXT NOT NULL," +
+            "floor INTEGER NOT NULL" +
+            ") WITHOUT ROWID;";
+
+    private static final String INSERT_SQL = "INSERT OR IGNORE INTO rooms(room_number, room_type, floor) VALUES(?, ?, ?)";
+    private static final String SELECT_ALL_SQL = "SELECT room_number, room_type, floor FROM rooms";
+
+    /**
+     * Fills the registry with the configured number of rooms of each type.
+     * @param conn The writer connection, inside the migration's transaction.
+     * @throws SQLException If a database access error occurs.
+     */
+    static void seed(Connection conn) throws SQLException {
+        int floor = 1;
+        int seeded = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (RoomType type : RoomType.values()) {
+                int count = type.configuredCount();
+                floor = addRooms(pstmt, type, count, floor);
+                seeded += count;
+            }
+            pstmt.executeBatch();
+        }
+        logger.info("Seeded the room registry with " + seeded + " rooms.");
+    }
+
+    /**
+     * Adds rooms until the registry holds at least the configured number of each type, so
+     * raising a room count after the registry was seeded gives the new rooms numbers too.
+     * Added rooms go on new floors above the highest one in use. Rooms are never removed: some
+     * may already be assigned, and spare rooms of a type only give the assigner more choice.
+     * @return How many rooms were added.
+     * @throws SQLException If the registry cannot be read or written.
+     */
+    public static int reconcile() throws SQLException {
+        return WriteQueue.execute(RoomRegistry::addMissingRooms);
+    }
+
+    static int addMissingRooms(Connection conn) throws SQLException {
+        int[] registered = new int[RoomType.values().length];
+        int highestFloor = 0;
+        for (Room room : load(conn)) {
+            registered[room.type().ordinal()]++;
+            highestFloor = Math.max(highestFloor, room.floor());
+        }
+
+        int floor = highestFloor + 1;
+        int added = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (RoomType type : RoomType.values()) {
+                int missing = type.configuredCount() - registered[type.ordinal()];
+                if (missing > 0) {
+                    floor = addRooms(pstmt, type, missing, floor);
+                    added += missing;
+                } else if (missing < 0) {
+                    logger.warning("The room registry has " + registered[type.ordinal()] + " " + type.getLabel()
+                            + " rooms but only " + type.configuredCount() + " are configured; the extra rooms are kept.");
+                }
+            }
+            pstmt.executeBatch();
+        }
+        if (added > 0) {
+            logger.info("Added " + added + " rooms to the room registry to match the configured room counts.");
+        }
+        return added;
+    }
+
+    // Batches count rooms of a type from the given floor up; returns the first floor left free after them.
+    private static int addRooms(PreparedStatement pstmt, RoomType type, int count, int floor) throws SQLException {
+        for (int i = 0; i < count; i++) {
+            int roomFloor = floor + i / ROOMS_PER_FLOOR;
+            pstmt.setString(1, String.valueOf(roomFloor * 100 + i % ROOMS_PER_FLOOR + 1));
+            pstmt.setString(2, type.name());
+            pstmt.setInt(3, roomFloor);
+            pstmt.addBatch();
+        }
+        return floor + Math.max(1, (count + ROOMS_PER_FLOOR - 1) / ROOMS_PER_FLOOR);
+    }
+
+    /**
+     * @return Every room, ordered by floor and then room number.
+     * @throws SQLException If the registry cannot be read.
+     */
+    public static List<Room> all() throws SQLException {
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseReader()) {
+            return load(lease.getConnection());
+        }
+    }
+
+    /**
+     * Reads every room, ordered by floor and then room number.
+     * @param conn Any connection.
+     * @return The rooms.
+     * @throws SQLException If a database access error occurs.
+     */
+    static List<Room> load(Connection conn) throws SQLException {
+        List<Room> rooms = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_ALL_SQL);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rooms.add(new Room(rs.getString(1), RoomType.valueOf(rs.getString(2)), rs.getInt(3)));
+            }
+        }
+        // Room numbers are text; order "99" before "101" by length first.
+        rooms.sort((a, b) -> a.floor() != b.floor() ? Integer.compare(a.floor(), b.floor())
+                : a.number().length() != b.number().length() ? Integer.compare(a.number().length(), b.number().length())
+                : a.number().compareTo(b.number()));
+        return rooms;
+    }
+}
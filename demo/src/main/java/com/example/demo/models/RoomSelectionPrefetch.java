@@ -0,0 +1,151 @@
+package com.example.demo.models;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Works out what the kiosk room selection screen shows while the guest is still on the guest
+ * selection screen. The dates are known by then, and once the party size is picked so is
+ * everything else: the free rooms for the stay and the suggested room mixes with their prices.
+ * <p>
+ * Every change of party size replaces the request in flight, and leaving the guest selection
+ * screen any way but forward cancels it. When room selection opens, it takes the result only
+ * if it was for the same stay and party, and no room count or rate plan has changed since it
+ * was computed; otherwise the screen computes its own as before. Called on the JavaFX thread,
+ * which never waits more than {@link #TAKE_WAIT_MILLIS} for a prefetch still running.
+ */
+public class RoomSelectionPrefetch {
+
+    private static final Logger logger = Logger.getLogger(RoomSelectionPrefetch.class.getName());
+
+    /** Longest the JavaFX thread waits for a prefetch that has not finished yet before giving up on it. */
+    static final long TAKE_WAIT_MILLIS = 50;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "room-selection-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * What the room selection screen shows for one party and stay.
+     * @param free The free rooms of each type on every night of the stay.
+     * @param suggestions The suggested room mixes, cheapest first, priced for the stay.
+     */
+    public record RoomOptions(Map<RoomType, Integer> free, List<RoomMixRecommender.Suggestion> suggestions) {
+    }
+
+    private record Request(LocalDate checkIn, LocalDate checkOut, int adults, int children) {
+    }
+
+    // The options with the inventory and rate plan they were worked out from.
+    private record Computed(RoomOptions options, long inventoryChanges, RatePlan plan) {
+    }
+
+    private record Pending(Request request, Future<Computed> result) {
+    }
+
+    private static Pending pending;
+
+    /**
+     * Starts working out the room options for a party in the background, replacing any earlier
+     * request. Does nothing if the same request is already in flight.
+     * @param checkIn The first night.
+     * @param checkOut The day of departure.
+     * @param adults The number of adults.
+     * @param children The number of children.
+     */
+    public static synchronized void start(LocalDate checkIn, LocalDate checkOut, int adults, int children) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn) || adults < 1) {
+            cancel();
+            return;
+        }
+        Request request = new Request(checkIn, checkOut, adults, children);
+        if (pending != null && pending.request().equals(request)) {
+            return;
+        }
+        cancel();
+        pending = new Pending(request, executor.submit(() -> compute(request)));
+    }
+
+    /**
+     * Hands over the prefetched room options for a reservation. A prefetch still running gets
+     * {@link #TAKE_WAIT_MILLIS} to finish; after that it is cancelled, so a slow one never
+     * freezes the kiosk.
+     * @param details The reservation the room selection screen is opening for.
+     * @return The options, or null if nothing current was prefetched for its stay and party in
+     *         time, or the reservation still holds rooms that the screen will release before
+     *         reading availability.
+     */
+    public static synchronized RoomOptions take(ReservationDetails details) {
+        Pending taken = pending;
+        pending = null;
+        if (taken == null) {
+            return null;
+        }
+        Request request = new Request(details.getCheckInDate(), details.getCheckOutDate(),
+                details.getNumberOfAdults(), details.getNumberOfChildren());
+        if (details.getHoldId() != null || !taken.request().equals(request)) {
+            taken.result().cancel(true);
+            return null;
+        }
+        try {
+            Computed computed = taken.result().get(TAKE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            if (computed.inventoryChanges() != RoomInventory.changeCount()
+                    || computed.plan() != PricingEngine.currentPlan()) {
+                logger.fine("Prefetched room options are out of date; room selection will work them out again.");
+                return null;
+            }
+            return computed.options();
+        } catch (ExecutionException e) {
+            logger.log(Level.WARNING, "Prefetching room options failed.", e.getCause());
+            return null;
+        } catch (TimeoutException e) {
+            logger.fine("Prefetched room options were not ready in time; room selection will work them out itself.");
+            taken.result().cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Drops the request in flight, if any.
+     */
+    public static synchronized void cancel() {
+        if (pending != null) {
+            pending.result().cancel(true);
+            pending = null;
+        }
+    }
+
+    /**
+     * Works out the room options for a reservation on the calling thread.
+     * @param details The reservation; its dates and party size are used.
+     * @return The options.
+     */
+    public static RoomOptions optionsFor(ReservationDetails details) {
+        return compute(new Request(details.getCheckInDate(), details.getCheckOutDate(),
+                details.getNumberOfAdults(), details.getNumberOfChildren())).options();
+    }
+
+    private static Computed compute(Request request) {
+        // Read both before the work, so a change while it runs makes the result out of date.
+        long inventoryChanges = RoomInventory.changeCount();
+        RatePlan plan = PricingEngine.currentPlan();
+        Map<RoomType, Integer> free = RoomInventory.availability(request.checkIn(), request.checkOut());
+        List<RoomMixRecommender.Suggestion> suggestions = RoomMixRecommender.recommend(
+                request.adults(), request.children(), request.checkIn(), request.checkOut(), free);
+        return new Computed(new RoomOptions(free, suggestions), inventoryChanges, plan);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.models;
+
+/**
+ * The bookable room types, how many guests each sleeps and how many rooms of each the hotel has.
+ * The default counts can be overridden at startup with system properties such as
+ * {@code -Dhotel.rooms.single=40}.
+ */
+public enum RoomType {
+
+    SINGLE("Single", "single", 20, 1, 0),
+    DOUBLE("Double", "double", 30, 2, 0),
+    DELUXE("Deluxe", "deluxe", 10, 3, 1),
+    PENTHOUSE("Penthouse", "penthouse", 2, 4, 2);
+
+    private static final String COUNT_PROPERTY_PREFIX = "hotel.rooms.";
+
+    private final String label;
+    private final String propertyKey;
+    private final int defaultCount;
+    private final int adultCapacity;
+    private final int childCapacity;
+
+    RoomType(String label, String propertyKey, int defaultCount, int adultCapacity, int childCapacity) {
+        this.label = label;
+        this.propertyKey = propertyKey;
+        this.defaultCount = defaultCount;
+        this.adultCapacity = adultCapacity;
+        this.childCapacity = childCapacity;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return The most adults one room of this type sleeps.
+     */
+    public int getAdultCapacity() {
+        return adultCapacity;
+    }
+
+    /**
+     * @return The most children one room of this type sleeps, in addition to its adults.
+     */
+    public int getChildCapacity() {
+        return childCapacity;
+    }
+
+    /**
+     * @return How many rooms of this type the hotel has.
+     */
+    public int configuredCount() {
+        return Math.max(0, Integer.getInteger(COUNT_PROPERTY_PREFIX + propertyKey, defaultCount));
+    }
+
+    /**
+     * @param details A reservation.
+     * @return How many rooms of this type the reservation books.
+     */
+    public int countIn(ReservationDetails details) {
+        return switch (this) {
+            case SINGLE -> details.getSingleRooms();
+            case DOUBLE -> details.getDoubleRooms();
+            case DELUXE -> details.getDeluxeRooms();
+            case PENTHOUSE -> details.getPenthouses();
+        };
+    }
+}
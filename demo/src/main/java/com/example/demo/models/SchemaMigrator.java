@@ -0,0 +1,316 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Brings the reservations database up to the schema version this build expects.
+ * Every applied migration is recorded in the 'schema_version' table, so each one runs
+ * exactly once per database file. Migrations are applied in version order, each inside
+ * its own transaction, so a failure leaves the database at the last good version.
+ */
+public class SchemaMigrator {
+
+    private static final Logger logger = Logger.getLogger(SchemaMigrator.class.getName());
+
+    /**
+     * A single schema change. Steps receive a connection that is already inside a transaction.
+     */
+    @FunctionalInterface
+    interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    record Migration(int version, String description, MigrationStep step) {
+    }
+
+    // Ordered list of every migration. Never edit an entry once it has shipped; add a new one instead.
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create reservations and feedback tables", SchemaMigrator::createBaseTables),
+            new Migration(2, "Add secondary indexes for reservation and feedback lookups", SchemaMigrator::createLookupIndexes),
+            new Migration(3, "Add phone number suffix index for partial searches", SchemaMigrator::createPhoneIndex),
+            new Migration(4, "Add full-text guest search index", SchemaMigrator::createGuestSearchIndex),
+            new Migration(5, "Store reservation dates as epoch days, prices as cents and status as a code",
+                    SchemaMigrator::compactReservationColumns),
+            new Migration(6, "Add the room registry and room assignments", SchemaMigrator::createRoomRegistry)
+    );
+
+    // The index set created by version 2. Version 5 replaced the reservation indexes with COMPACT_RESERVATION_INDEXES.
+    private static final List<String> LOOKUP_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_reservations_phone_number ON reservations(phone_number)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_check_in_date ON reservations(check_in_date)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_check_out_date ON reservations(check_out_date)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_status ON reservations(status)",
+            "CREATE INDEX IF NOT EXISTS idx_feedback_reservation_id ON feedback(reservation_id)"
+    );
+
+    // The managed reservation indexes since version 5. QueryPlanVerifier fails startup if a lookup stops using these.
+    private static final List<String> COMPACT_RESERVATION_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_reservations_phone_number ON reservations(phone_number)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_check_in_day ON reservations(check_in_day)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_check_out_day ON reservations(check_out_day)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_status_code ON reservations(status_code)"
+    );
+
+    private static volatile boolean initialized = false;
+
+    /**
+     * @return true once {@link #migrate()} has brought the database to the latest version
+     *         in this process. This is a single volatile read and is safe to call from UI code.
+     */
+    public static boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * @return The schema version this build of the application expects.
+     */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    /**
+     * Applies every pending migration. Only the first successful call does any work.
+     * @throws SQLException If a migration fails; that migration is rolled back.
+     */
+    public static synchronized void migrate() throws SQLException {
+        if (initialized) {
+            return;
+        }
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseWriter()) {
+            Connection conn = lease.getConnection();
+            DatabaseMetaData meta = conn.getMetaData();
+            logger.info("The driver name is " + meta.getDriverName());
+
+            createVersionTable(conn);
+            int currentVersion = currentVersion(conn);
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() > currentVersion) {
+                    applyMigration(conn, migration);
+                }
+            }
+            logger.info("Database schema is at version " + latestVersion() + ".");
+        }
+        initialized = true;
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INTEGER PRIMARY KEY," +
+                "description TEXT NOT NULL," +
+                "applied_at TEXT NOT NULL" +
+                ");";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void applyMigration(Connection conn, Migration migration) throws SQLException {
+        logger.info("Applying schema migration " + migration.version() + ": " + migration.description());
+        conn.setAutoCommit(false);
+        try {
+            migration.step().apply(conn);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_version(version, description, applied_at) VALUES(?, ?, ?)")) {
+                pstmt.setInt(1, migration.version());
+                pstmt.setString(2, migration.description());
+                pstmt.setString(3, LocalDateTime.now().toString());
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Schema migration " + migration.version() + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // --- Migrations ---
+
+    /**
+     * Version 1: the original reservations and feedback tables. Uses IF NOT EXISTS so that
+     * databases created before schema versioning existed are adopted as-is.
+     */
+    private static void createBaseTables(Connection conn) throws SQLException {
+        String reservations = "CREATE TABLE IF NOT EXISTS reservations (" +
+                "reservation_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "full_name TEXT NOT NULL," +
+                "phone_number TEXT NOT NULL," +
+                "email TEXT NOT NULL," +
+                "address TEXT NOT NULL," +
+                "province TEXT NOT NULL," +
+                "city TEXT NOT NULL," +
+                "postal_code TEXT NOT NULL," +
+                "id_proof_type TEXT NOT NULL," +
+                "id_proof_number TEXT NOT NULL," +
+                "check_in_date TEXT NOT NULL," +
+                "check_out_date TEXT NOT NULL," +
+                "adults INTEGER NOT NULL," +
+                "children INTEGER NOT NULL," +
+                "single_rooms INTEGER NOT NULL," +
+                "double_rooms INTEGER NOT NULL," +
+                "deluxe_rooms INTEGER NOT NULL," +
+                "penthouse_rooms INTEGER NOT NULL," +
+                "total_price REAL NOT NULL," +
+                "status TEXT NOT NULL," +
+                "room_number TEXT," +
+                "room_type TEXT" +
+                ");";
+        String feedback = "CREATE TABLE IF NOT EXISTS feedback (" +
+                "feedback_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "reservation_id INTEGER NOT NULL," +
+                "rating INTEGER NOT NULL," +
+                "comment TEXT," +
+                "submission_date TEXT NOT NULL," +
+                "FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id)" +
+                ");";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(reservations);
+            stmt.execute(feedback);
+        }
+    }
+
+    /**
+     * Version 2: secondary indexes for the phone, date and status lookups, then ANALYZE
+     * so the query planner has statistics for an existing, already populated file.
+     */
+    private static void createLookupIndexes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : LOOKUP_INDEXES) {
+                stmt.execute(sql);
+            }
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    /**
+     * Version 3: the phone suffix table behind partial phone searches, backfilled from
+     * the existing reservations.
+     */
+    private static void createPhoneIndex(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(PhoneIndex.CREATE_TABLE_SQL);
+            stmt.execute(PhoneIndex.CREATE_INDEX_SQL);
+        }
+        PhoneIndex.rebuild(conn);
+    }
+
+    /**
+     * Version 4: the FTS5 guest search index and the triggers that keep it current,
+     * populated from the existing reservations.
+     */
+    private static void createGuestSearchIndex(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(GuestSearchIndex.CREATE_TABLE_SQL);
+            for (String sql : GuestSearchIndex.CREATE_TRIGGERS_SQL) {
+                stmt.execute(sql);
+            }
+        }
+        GuestSearchIndex.rebuild(conn);
+    }
+
+    /**
+     * Version 5: rebuilds 'reservations' with check-in/check-out stored as epoch days, the price
+     * as whole cents and the status as a {@link ReservationStatus} code, so reading a row no longer
+     * parses dates or compares strings. Existing rows are converted in place and keep their ids,
+     * which the phone suffix table and the full-text index refer to.
+     */
+    private static void compactReservationColumns(Connection conn) throws SQLException {
+        String reservations = "CREATE TABLE reservations_compact (" +
+                "reservation_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "full_name TEXT NOT NULL," +
+                "phone_number TEXT NOT NULL," +
+                "email TEXT NOT NULL," +
+                "address TEXT NOT NULL," +
+                "province TEXT NOT NULL," +
+                "city TEXT NOT NULL," +
+                "postal_code TEXT NOT NULL," +
+                "id_proof_type TEXT NOT NULL," +
+                "id_proof_number TEXT NOT NULL," +
+                "check_in_day INTEGER NOT NULL," +
+                "check_out_day INTEGER NOT NULL," +
+                "adults INTEGER NOT NULL," +
+                "children INTEGER NOT NULL," +
+                "single_rooms INTEGER NOT NULL," +
+                "double_rooms INTEGER NOT NULL," +
+                "deluxe_rooms INTEGER NOT NULL," +
+                "penthouse_rooms INTEGER NOT NULL," +
+                "total_price_cents INTEGER NOT NULL," +
+                "status_code INTEGER NOT NULL," +
+                "room_number TEXT," +
+                "room_type TEXT" +
+                ");";
+        // julianday() of a bare date is midnight UTC; 2440587.5 is the Julian day of 1970-01-01.
+        String copy = "INSERT INTO reservations_compact SELECT " +
+                "reservation_id, full_name, phone_number, email, address, province, city, postal_code, " +
+                "id_proof_type, id_proof_number, " +
+                "CAST(julianday(check_in_date) - 2440587.5 AS INTEGER), " +
+                "CAST(julianday(check_out_date) - 2440587.5 AS INTEGER), " +
+                "adults, children, single_rooms, double_rooms, deluxe_rooms, penthouse_rooms, " +
+                "CAST(ROUND(total_price * 100) AS INTEGER), " +
+                statusCodeExpression("status") + ", " +
+                "room_number, room_type FROM reservations";
+
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT COUNT(*) FROM reservations WHERE julianday(check_in_date) IS NULL OR julianday(check_out_date) IS NULL")) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    throw new SQLException(rs.getInt(1) + " reservations have a check-in or check-out date that is not yyyy-MM-dd.");
+                }
+            }
+            stmt.execute(reservations);
+            int copied = stmt.executeUpdate(copy);
+            // Dropping the old table also drops its indexes and the full-text triggers.
+            stmt.execute("DROP TABLE reservations");
+            stmt.execute("ALTER TABLE reservations_compact RENAME TO reservations");
+            for (String sql : COMPACT_RESERVATION_INDEXES) {
+                stmt.execute(sql);
+            }
+            for (String sql : GuestSearchIndex.CREATE_TRIGGERS_SQL) {
+                stmt.execute(sql);
+            }
+            stmt.execute("ANALYZE");
+            logger.info("Converted " + copied + " reservations to the compact column format.");
+        }
+        GuestSearchIndex.rebuild(conn);
+    }
+
+    /**
+     * Version 6: the registry of physical rooms, seeded from the configured room counts, and the
+     * table recording which rooms each reservation is given. Room numbers typed into existing
+     * reservations are adopted as pinned assignments wherever they name a registered room.
+     */
+    private static void createRoomRegistry(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(RoomRegistry.CREATE_TABLE_SQL);
+            stmt.execute(RoomAssigner.CREATE_TABLE_SQL);
+            stmt.execute(RoomAssigner.CREATE_INDEX_SQL);
+        }
+        RoomRegistry.seed(conn);
+        RoomAssigner.adoptTypedRooms(conn);
+    }
+
+    // A CASE expression mapping the legacy free-text status column to ReservationStatus codes.
+    private static String statusCodeExpression(String column) {
+        StringBuilder sql = new StringBuilder("CASE lower(trim(").append(column).append("))");
+        for (ReservationStatus status : ReservationStatus.values()) {
+            sql.append(" WHEN '").append(status.getLabel().toLowerCase()).append("' THEN ").append(status.getCode());
+        }
+        return sql.append(" ELSE ").append(ReservationStatus.PENDING.getCode()).append(" END").toString();
+    }
+}
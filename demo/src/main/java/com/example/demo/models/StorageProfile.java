@@ -0,0 +1,97 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * Named SQLite tuning profiles, applied by {@link ConnectionManager} to every connection it opens.
+ * All profiles run the database in WAL mode, so readers work from a snapshot and never block
+ * the writer, and the writer never blocks them. They differ in how much durability they trade
+ * for speed. The profile is chosen at startup with the system property
+ * {@value #PROFILE_PROPERTY}, e.g. {@code -Dreservations.storage.profile=bulk-import}.
+ */
+public enum StorageProfile {
+
+    /**
+     * Default for day-to-day use: every commit is fsynced, so a power cut never loses a
+     * confirmed booking.
+     */
+    KIOSK_SAFE("kiosk-safe", "FULL", 8 * 1024, 64L * 1024 * 1024, 5_000, "MEMORY"),
+
+    /**
+     * For loading many reservations at once. Commits are only synced at checkpoints, which is
+     * safe against an application crash but may lose the last commits on power loss.
+     */
+    BULK_IMPORT("bulk-import", "NORMAL", 64 * 1024, 256L * 1024 * 1024, 30_000, "MEMORY");
+
+    public static final String PROFILE_PROPERTY = "reservations.storage.profile";
+
+    private static final Logger logger = Logger.getLogger(StorageProfile.class.getName());
+
+    private final String profileName;
+    private final String synchronous;
+    private final int cacheSizeKib;
+    private final long mmapSizeBytes;
+    private final int busyTimeoutMillis;
+    private final String tempStore;
+
+    StorageProfile(String profileName, String synchronous, int cacheSizeKib, long mmapSizeBytes,
+                   int busyTimeoutMillis, String tempStore) {
+        this.profileName = profileName;
+        this.synchronous = synchronous;
+        this.cacheSizeKib = cacheSizeKib;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.tempStore = tempStore;
+    }
+
+    public String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * Resolves the profile named by the {@value #PROFILE_PROPERTY} system property.
+     * @return The selected profile, or {@link #KIOSK_SAFE} if none or an unknown one is named.
+     */
+    public static StorageProfile fromSystemProperty() {
+        String name = System.getProperty(PROFILE_PROPERTY);
+        if (name == null || name.isBlank()) {
+            return KIOSK_SAFE;
+        }
+        for (StorageProfile profile : values()) {
+            if (profile.profileName.equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+        logger.warning("Unknown storage profile '" + name + "', using " + KIOSK_SAFE.profileName + ".");
+        return KIOSK_SAFE;
+    }
+
+    /**
+     * Applies the profile's pragmas to a freshly opened connection.
+     * @param conn The connection to configure.
+     * @throws SQLException If a pragma cannot be applied.
+     */
+    void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            // A negative cache_size is a size in KiB rather than a page count.
+            stmt.execute("PRAGMA cache_size = -" + cacheSizeKib);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    /**
+     * @return A one-line description of the settings, for the startup log.
+     */
+    public String describe() {
+        return profileName + " (journal_mode=WAL, synchronous=" + synchronous + ", cache_size=" + cacheSizeKib
+                + " KiB, mmap_size=" + (mmapSizeBytes / (1024 * 1024)) + " MiB, busy_timeout=" + busyTimeoutMillis
+                + " ms, temp_store=" + tempStore + ")";
+    }
+}
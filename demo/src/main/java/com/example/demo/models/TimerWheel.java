@@ -0,0 +1,156 @@
+package com.example.demo.models;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timer wheel for large numbers of coarse timeouts that are mostly cancelled or
+ * rescheduled before they fire, such as room holds. Each timeout is dropped into the slot of
+ * its deadline tick, so scheduling and cancelling are O(1), and each tick only looks at the one
+ * slot it lands on rather than at every outstanding timeout. Cancelled timeouts are not searched
+ * for; they are skipped and dropped the next time their slot comes round.
+ * <p>
+ * Tasks run on the wheel's own daemon thread and must be short.
+ */
+public class TimerWheel {
+
+    private static final Logger logger = Logger.getLogger(TimerWheel.class.getName());
+
+    /**
+     * A scheduled task. Cancelling it is a single volatile write.
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final String name;
+    private final long tickNanos;
+    private final ArrayDeque<Timeout>[] slots;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+
+    // Guarded by 'this'.
+    private long currentTick;
+    private Thread worker;
+    private boolean stopped;
+
+    /**
+     * @param name The worker thread's name.
+     * @param tickDuration How far apart ticks are; timeouts fire up to one tick late.
+     * @param unit The unit of tickDuration.
+     * @param slotCount Number of slots, rounded up to a power of two. A wheel revolution of
+     *                  slotCount ticks longer than typical timeouts means each one is visited once.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(String name, long tickDuration, TimeUnit unit, int slotCount) {
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(Math.max(1, slotCount - 1)) << 1;
+        this.slots = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Runs a task once the delay has passed, rounded up to a whole tick.
+     * @param task The task to run on the wheel thread.
+     * @param delay The delay.
+     * @param unit The unit of delay.
+     * @return A handle for cancelling the task.
+     */
+    public synchronized Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timer wheel " + name + " has been stopped.");
+        }
+        long ticks = Math.max(1, (unit.toNanos(delay) + tickNanos - 1) / tickNanos);
+        Timeout timeout = new Timeout(task, currentTick + ticks);
+        slots[(int) (timeout.deadlineTick & mask)].add(timeout);
+        if (worker == null) {
+            worker = new Thread(this::run, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        return timeout;
+    }
+
+    /**
+     * Stops the worker thread. Timeouts that have not fired yet never will.
+     */
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            stopped = true;
+            thread = worker;
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<Timeout> due;
+            synchronized (this) {
+                if (stopped) {
+                    return;
+                }
+                long sleepNanos = startNanos + (currentTick + 1) * tickNanos - System.nanoTime();
+                if (sleepNanos > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, sleepNanos);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    continue;
+                }
+                currentTick++;
+                due = expire(slots[(int) (currentTick & mask)]);
+            }
+            for (Timeout timeout : due) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Timer task on " + name + " failed: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    // Removes and returns the slot's due timeouts; later revolutions stay, cancelled ones are dropped.
+    private List<Timeout> expire(ArrayDeque<Timeout> slot) {
+        List<Timeout> due = new ArrayList<>();
+        Iterator<Timeout> timeouts = slot.iterator();
+        while (timeouts.hasNext()) {
+            Timeout timeout = timeouts.next();
+            if (timeout.cancelled) {
+                timeouts.remove();
+            } else if (timeout.deadlineTick <= currentTick) {
+                timeouts.remove();
+                due.add(timeout);
+            }
+        }
+        return due;
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.demo.models;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Funnels every reservation write through one writer thread that commits them in groups.
+ * Writes submitted within a short window of each other share a single transaction, and so a
+ * single fsync, instead of each paying for its own. Every write runs inside its own savepoint:
+ * a write that fails is rolled back on its own and reported to its caller, while the rest of
+ * the group still commits. Callers get their result only after the group has committed.
+ */
+public class WriteQueue {
+
+    private static final Logger logger = Logger.getLogger(WriteQueue.class.getName());
+
+    // How long the writer waits for more writes to join a group once the first one arrives.
+    private static final long BATCH_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int MAX_BATCH_SIZE = 64;
+
+    /**
+     * A unit of work run on the writer connection, inside the group's transaction.
+     * Implementations must not commit, roll back or change auto-commit.
+     */
+    @FunctionalInterface
+    public interface WriteOperation<T> {
+        T apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Totals since startup, for judging how much batching the workload achieves.
+     * @param batches Number of transactions committed.
+     * @param writes Number of writes across those transactions.
+     * @param largestBatch The most writes committed in one transaction.
+     */
+    public record Stats(long batches, long writes, int largestBatch) {
+        public double averageBatchSize() {
+            return batches == 0 ? 0 : (double) writes / batches;
+        }
+    }
+
+    private static final PendingWrite<Void> STOP = new PendingWrite<>(null);
+    private static final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private static Thread writerThread;
+    private static volatile boolean stopped = false;
+
+    private static long batchCount;
+    private static long writeCount;
+    private static int largestBatch;
+
+    /**
+     * Queues a write for the next group commit.
+     * @param operation The write to run.
+     * @return A future completed with the operation's result once its group has committed,
+     *         or exceptionally if the operation or the commit failed.
+     */
+    public static <T> CompletableFuture<T> submit(WriteOperation<T> operation) {
+        PendingWrite<T> write = new PendingWrite<>(operation);
+        if (stopped) {
+            write.future.completeExceptionally(new SQLException("Write queue has been shut down."));
+            return write.future;
+        }
+        ensureStarted();
+        queue.add(write);
+        return write.future;
+    }
+
+    /**
+     * Queues a write and waits for its group to commit.
+     * @param operation The write to run.
+     * @return The operation's result.
+     * @throws SQLException If the operation or the commit failed, or the wait was interrupted.
+     */
+    public static <T> T execute(WriteOperation<T> operation) throws SQLException {
+        try {
+            return submit(operation).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a write to commit.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * @return Batching totals since startup.
+     */
+    public static synchronized Stats stats() {
+        return new Stats(batchCount, writeCount, largestBatch);
+    }
+
+    /**
+     * Commits everything already queued, then stops the writer thread.
+     * Called from {@code MainApplication.stop()} before the connections are closed.
+     */
+    public static void shutdown() {
+        Thread thread;
+        synchronized (WriteQueue.class) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            thread = writerThread;
+        }
+        if (thread == null) {
+            return;
+        }
+        queue.add(STOP);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Stats stats = stats();
+        logger.info(String.format("Write queue stopped after %d writes in %d transactions (average %.1f, largest %d).",
+                stats.writes(), stats.batches(), stats.averageBatchSize(), stats.largestBatch()));
+    }
+
+    private static synchronized void ensureStarted() {
+        if (writerThread != null) {
+            return;
+        }
+        writerThread = new Thread(WriteQueue::run, "reservation-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    private static void run() {
+        boolean stopping = false;
+        while (!stopping) {
+            List<PendingWrite<?>> batch = new ArrayList<>();
+            try {
+                PendingWrite<?> first = queue.take();
+                if (first == STOP) {
+                    break;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + BATCH_WINDOW_NANOS;
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    PendingWrite<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == STOP) {
+                        stopping = true;
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Nothing interrupts this thread on purpose; finish what was collected and carry on.
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    commitBatch(batch);
+                } catch (Throwable e) {
+                    // The lease has rolled the transaction back; fail the group but keep the writer alive.
+                    logger.log(Level.SEVERE, "Group commit of " + batch.size() + " writes failed: " + e, e);
+                    for (PendingWrite<?> write : batch) {
+                        write.future.completeExceptionally(e);
+                    }
+                }
+            }
+        }
+        // Anything that raced in behind the stop marker is refused rather than left waiting forever.
+        for (PendingWrite<?> write; (write = queue.poll()) != null; ) {
+            write.future.completeExceptionally(new SQLException("Write queue has been shut down."));
+        }
+    }
+
+    private static void commitBatch(List<PendingWrite<?>> batch) {
+        try (ConnectionManager.PooledConnection lease = ConnectionManager.leaseWriter()) {
+            Connection conn = lease.getConnection();
+            conn.setAutoCommit(false);
+            for (PendingWrite<?> write : batch) {
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    write.run(conn);
+                    conn.releaseSavepoint(savepoint);
+                } catch (Throwable e) {
+                    // Errors too, so one bad write cannot leave its savepoint open for the rest.
+                    conn.rollback(savepoint);
+                    write.failure = e;
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Group commit of " + batch.size() + " writes failed: " + e.getMessage(), e);
+            for (PendingWrite<?> write : batch) {
+                write.future.completeExceptionally(e);
+            }
+            return;
+        }
+
+        recordBatch(batch.size());
+        for (PendingWrite<?> write : batch) {
+            write.complete();
+        }
+    }
+
+    private static synchronized void recordBatch(int size) {
+        batchCount++;
+        writeCount += size;
+        if (size > largestBatch) {
+            largestBatch = size;
+            logger.info("Write queue committed a new largest batch of " + size + " writes.");
+        }
+        logger.fine("Committed " + size + " writes in one transaction.");
+    }
+
+    private static final class PendingWrite<T> {
+        private final WriteOperation<T> operation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Throwable failure;
+
+        private PendingWrite(WriteOperation<T> operation) {
+            this.operation = operation;
+        }
+
+        private void run(Connection conn) throws SQLException {
+            result = operation.apply(conn);
+        }
+
+        private void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
@@ -1,17 +1,111 @@
 package com.example.demo.util;
 
+import com.example.demo.models.RoomAvailability;
+import com.example.demo.models.RoomInventory;
+import com.example.demo.models.RoomType;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Tooltip;
+import javafx.util.Callback;
+
 import java.time.LocalDate;
+import java.util.function.Supplier;
 
+/**
+ * Date picker cell that disables dates before a minimum date and, when availability-aware,
+ * shades each date by how easy it is to get a room that night: sold-out nights are disabled,
+ * nights with few rooms left are highlighted. Availability comes from the
+ * {@link RoomInventory} bitmap, so rendering a month never touches the database, and every
+ * time the picker pops up it shows the bookings made since it was last opened.
+ */
 public class DateCell extends javafx.scene.control.DateCell {
+
+    private static final String SOLD_OUT_STYLE = "-fx-background-color: #F5B7B1;";
+    private static final String LIMITED_STYLE = "-fx-background-color: #FAD7A0;";
+
     private LocalDate minDate;
+    private final boolean showAvailability;
+    private final RoomType roomType;
+    // For check-out cells: the chosen check-in date, whose nights up to the cell must all be bookable.
+    private final Supplier<LocalDate> checkIn;
 
     public DateCell(LocalDate minDate) {
+        this(minDate, false, null, null);
+    }
+
+    private DateCell(LocalDate minDate, boolean showAvailability, RoomType roomType, Supplier<LocalDate> checkIn) {
         this.minDate = minDate;
+        this.showAvailability = showAvailability;
+        this.roomType = roomType;
+        this.checkIn = checkIn;
+    }
+
+    /**
+     * Day cells for a check-in picker: past dates and sold-out nights are disabled.
+     * @param minDate The earliest selectable date.
+     * @param roomType The room type to show availability for, or null for any room type.
+     * @return A day cell factory for {@link DatePicker#setDayCellFactory}.
+     */
+    public static Callback<DatePicker, javafx.scene.control.DateCell> forCheckIn(LocalDate minDate, RoomType roomType) {
+        return picker -> new DateCell(minDate, true, roomType, null);
+    }
+
+    /**
+     * Day cells for a check-out picker: a date can only be chosen if it is after the check-in
+     * date and no night between the two is sold out.
+     * @param checkIn Supplies the currently chosen check-in date, or null if none is chosen.
+     * @param roomType The room type to show availability for, or null for any room type.
+     * @return A day cell factory for {@link DatePicker#setDayCellFactory}.
+     */
+    public static Callback<DatePicker, javafx.scene.control.DateCell> forCheckOut(Supplier<LocalDate> checkIn,
+                                                                                   RoomType roomType) {
+        return picker -> new DateCell(LocalDate.now().plusDays(1), true, roomType, checkIn);
     }
 
     @Override
     public void updateItem(LocalDate item, boolean empty) {
         super.updateItem(item, empty);
+        setStyle("");
+        setTooltip(null);
         setDisable(empty || item.isBefore(minDate));
+        if (empty || !showAvailability || isDisable()) {
+            return;
+        }
+
+        LocalDate firstNight = checkIn == null ? null : checkIn.get();
+        if (checkIn != null && firstNight != null) {
+            // The check-out day itself is not stayed; every night before it back to check-in is.
+            if (!item.isAfter(firstNight)) {
+                setDisable(true);
+                return;
+            }
+            for (LocalDate night = firstNight; night.isBefore(item); night = night.plusDays(1)) {
+                if (availability(night) == RoomAvailability.SOLD_OUT) {
+                    setDisable(true);
+                    setTooltip(new Tooltip("Sold out on " + night + "."));
+                    return;
+                }
+            }
+            return;
+        }
+
+        switch (availability(item)) {
+            case SOLD_OUT -> {
+                setDisable(true);
+                setStyle(SOLD_OUT_STYLE);
+                setTooltip(new Tooltip("Sold out"));
+            }
+            case LIMITED -> {
+                setStyle(LIMITED_STYLE);
+                setTooltip(new Tooltip("Only a few rooms left"));
+            }
+            case AVAILABLE -> {
+            }
+        }
+    }
+
+    private RoomAvailability availability(LocalDate night) {
+        return roomType == null
+                ? RoomInventory.nightAvailability(night).best()
+                : RoomInventory.nightAvailability(night).get(roomType);
     }
-}
\ No newline at end of file
+}
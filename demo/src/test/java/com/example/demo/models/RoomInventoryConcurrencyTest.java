@@ -0,0 +1,92 @@
+package com.example.demo.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races many bookings for the same few nights against {@link RoomInventory#tryReserve} and checks
+ * that no night of any room type ends up with more rooms booked than the hotel has.
+ */
+class RoomInventoryConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 500;
+    // Every stay falls inside this window, so almost every pair of bookings overlaps.
+    private static final int WINDOW_NIGHTS = 5;
+
+    @Test
+    void overlappingBookingsNeverExceedCapacity() throws Exception {
+        RoomType[] types = RoomType.values();
+        long firstNight = LocalDate.now().plusDays(100).toEpochDay();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<RoomInventory.Stay>>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Callable<List<RoomInventory.Stay>> booker = () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<RoomInventory.Stay> booked = new ArrayList<>();
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    long checkIn = firstNight + random.nextInt(WINDOW_NIGHTS);
+                    long checkOut = checkIn + 1 + random.nextInt((int) (firstNight + WINDOW_NIGHTS - checkIn));
+                    int[] rooms = new int[types.length];
+                    rooms[random.nextInt(types.length)] = 1 + random.nextInt(3);
+                    RoomInventory.Stay stay = new RoomInventory.Stay(checkIn, checkOut, rooms);
+                    if (RoomInventory.tryReserve(stay)) {
+                        booked.add(stay);
+                    }
+                }
+                return booked;
+            };
+            results.add(pool.submit(booker));
+        }
+        start.countDown();
+
+        List<RoomInventory.Stay> booked = new ArrayList<>();
+        for (Future<List<RoomInventory.Stay>> result : results) {
+            booked.addAll(result.get());
+        }
+        pool.shutdown();
+
+        try {
+            for (RoomType type : types) {
+                int capacity = RoomInventory.capacity(type);
+                for (long night = firstNight; night < firstNight + WINDOW_NIGHTS; night++) {
+                    int roomsBooked = 0;
+                    for (RoomInventory.Stay stay : booked) {
+                        if (stay.checkInDay() <= night && night < stay.checkOutDay()) {
+                            roomsBooked += stay.rooms()[type.ordinal()];
+                        }
+                    }
+                    LocalDate date = LocalDate.ofEpochDay(night);
+                    assertTrue(roomsBooked <= capacity,
+                            type + " on " + date + " has " + roomsBooked + " rooms booked but only " + capacity + " exist");
+                    assertEquals(capacity - roomsBooked, RoomInventory.available(type, date, date.plusDays(1)),
+                            "The inventory's count for " + type + " on " + date + " disagrees with the winning bookings");
+                }
+            }
+        } finally {
+            // The inventory is shared by the whole JVM; leave it as it was found.
+            for (RoomInventory.Stay stay : booked) {
+                RoomInventory.release(stay);
+            }
+        }
+        for (RoomType type : types) {
+            LocalDate from = LocalDate.ofEpochDay(firstNight);
+            assertEquals(RoomInventory.capacity(type), RoomInventory.available(type, from, from.plusDays(WINDOW_NIGHTS)));
+        }
+    }
+}